@@ -0,0 +1,239 @@
+package xyz.efibalogh.eventhandler.changes;
+
+import xyz.efibalogh.eventhandler.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans committed changes out to SSE subscribers. Every subscriber has its own bounded buffer drained on a
+// shared pool, so a slow client never blocks the writer; when its buffer overflows the pending changes are
+// dropped and the client is told to resync instead. A client that stops reading blocks its drain thread inside
+// send(); the heartbeat closes it once a send takes longer than changes.send-timeout, and Tomcat's write timeout
+// (server.tomcat.connection-timeout) ends the write that is still stuck.
+@Slf4j
+@Component
+public class ChangeFeed implements DisposableBean {
+    private static final String CHANGE_EVENT = "change";
+    private static final String RESYNC_EVENT = "resync";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // a slot is taken before a subscriber is added and given back by the one remove() that drops it
+    private final Semaphore slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService drainExecutor;
+    private final Counter overflows;
+    private final Counter stalls;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+
+    public ChangeFeed(
+            @Value("${changes.max-subscribers}") int maxSubscribers,
+            @Value("${changes.buffer-size}") int bufferSize,
+            @Value("${changes.drain-threads}") int drainThreads,
+            @Value("${changes.timeout}") Duration timeout,
+            @Value("${changes.send-timeout}") Duration sendTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.slots = new Semaphore(maxSubscribers);
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        // at most one pending drain per subscriber, so the task queue never outgrows the subscriber limit
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                drainThreads,
+                drainThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxSubscribers),
+                new CustomizableThreadFactory("change-feed-")
+        );
+        this.drainExecutor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "changeFeed");
+        this.overflows = Counter.builder("changes.overflows")
+                .description("Subscribers whose buffer overflowed and were asked to resync")
+                .register(meterRegistry);
+        this.stalls = Counter.builder("changes.stalls")
+                .description("Subscribers closed because a send took longer than changes.send-timeout")
+                .register(meterRegistry);
+        Gauge.builder("changes.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        if (!slots.tryAcquire()) {
+            throw new ServiceOverloadedException("Too many change feed subscribers, please try again later!");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Change feed subscriber connected, {} open", subscribers.size());
+        return emitter;
+    }
+
+    // fallbackExecution covers writes that ran without a surrounding transaction and are already committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(EntityChange change) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Delivery delivery = new Delivery(sequence.incrementAndGet(), change);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(delivery);
+        }
+    }
+
+    // lets proxies and the servlet container notice dead connections while nothing changes
+    @Scheduled(fixedDelayString = "${changes.heartbeat-interval}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                log.warn("Change feed subscriber stopped reading, closing it");
+                stalls.increment();
+                remove(subscriber);
+                // complete() takes no lock, unlike send(), so it never waits for the stuck write
+                subscriber.emitter.complete();
+            } else {
+                subscriber.requestHeartbeat();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        drainExecutor.shutdown();
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.release();
+        }
+    }
+
+    private record Delivery(long id, EntityChange change) {}
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Delivery> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean resync;
+        private volatile boolean heartbeat;
+        // System.nanoTime() when the send in progress started, 0 between sends
+        private volatile long sendStarted;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Delivery delivery) {
+            if (!buffer.offer(delivery)) {
+                resync = true;
+                buffer.clear();
+                overflows.increment();
+            }
+            schedule();
+        }
+
+        boolean isStalled(long now) {
+            long started = sendStarted;
+            return started != 0 && now - started > sendTimeoutNanos;
+        }
+
+        void requestHeartbeat() {
+            heartbeat = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                drainExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                log.warn("Change feed drain pool rejected a subscriber, closing it");
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                drain();
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the emitter already completed
+                remove(this);
+                scheduled.set(false);
+                return;
+            }
+            scheduled.set(false);
+            // an offer may have arrived after the last poll but before the flag was cleared
+            if (resync || heartbeat || !buffer.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void drain() throws IOException {
+            if (heartbeat) {
+                heartbeat = false;
+                send(SseEmitter.event().comment("keepalive"));
+            }
+            Delivery delivery;
+            do {
+                if (resync) {
+                    resync = false;
+                    send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+                }
+                delivery = buffer.poll();
+                if (delivery != null) {
+                    send(SseEmitter.event()
+                            .id(Long.toString(delivery.id()))
+                            .name(CHANGE_EVENT)
+                            .data(delivery.change()));
+                }
+            } while (delivery != null);
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendStarted = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                sendStarted = 0;
+            }
+        }
+    }
+}
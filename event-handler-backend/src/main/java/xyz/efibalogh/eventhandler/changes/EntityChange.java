@@ -0,0 +1,24 @@
+package xyz.efibalogh.eventhandler.changes;
+
+// published by the services, delivered to change feed subscribers once the surrounding transaction commits
+public record EntityChange(Entity entity, Type type, Long id, Long eventId) {
+    public enum Entity {
+        EVENT,
+        PARTICIPANT
+    }
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        IMPORTED
+    }
+
+    public static EntityChange event(Type type, Long id) {
+        return new EntityChange(Entity.EVENT, type, id, id);
+    }
+
+    public static EntityChange participant(Type type, Long id, Long eventId) {
+        return new EntityChange(Entity.PARTICIPANT, type, id, eventId);
+    }
+}
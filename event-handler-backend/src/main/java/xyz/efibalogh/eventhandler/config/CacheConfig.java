@@ -0,0 +1,34 @@
+package xyz.efibalogh.eventhandler.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.user-details.ttl}") Duration userDetailsTtl,
+            @Value("${cache.user-details.max-size}") long userDetailsMaxSize
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(USER_DETAILS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(userDetailsTtl)
+                .maximumSize(userDetailsMaxSize)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,10 @@
+package xyz.efibalogh.eventhandler.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// The app's own pools (PasswordHashingExecutor, ChangeFeed) are components wrapping an ExecutorService on
+// purpose: any Executor bean would replace Boot's applicationTaskExecutor, which also runs async MVC requests.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
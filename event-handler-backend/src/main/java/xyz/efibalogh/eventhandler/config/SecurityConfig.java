@@ -3,12 +3,19 @@ package xyz.efibalogh.eventhandler.config;
 import xyz.efibalogh.eventhandler.exception.SecurityConfigException;
 import xyz.efibalogh.eventhandler.jwt.JwtAuthFilter;
 import xyz.efibalogh.eventhandler.jwt.JwtUtil;
+import xyz.efibalogh.eventhandler.ratelimit.LoginRateLimitFilter;
+import xyz.efibalogh.eventhandler.service.RefreshTokenService;
 import xyz.efibalogh.eventhandler.service.TokenBlacklistService;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -35,8 +42,10 @@ import java.util.List;
 @SuppressWarnings("PMD.AvoidCatchingGenericException")
 public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
     private final UserDetailsService userDetailsService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final RefreshTokenService refreshTokenService;
     private final JwtUtil jwtUtil;
 
     @Bean
@@ -46,7 +55,12 @@ public class SecurityConfig {
                 .cors(customizer -> customizer.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.to("prometheus")).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -54,6 +68,7 @@ public class SecurityConfig {
                 )
                 .userDetailsService(userDetailsService)
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(loginRateLimitFilter, JwtAuthFilter.class)
                 .logout(logout -> logout
                         .logoutUrl("/auth/logout")
                         .logoutSuccessHandler((request, response, authentication) -> {
@@ -64,6 +79,7 @@ public class SecurityConfig {
                                     String username = jwtUtil.extractUsername(jwt);
                                     tokenBlacklistService.blacklistToken(jwt);
                                     tokenBlacklistService.removeActiveUser(username);
+                                    refreshTokenService.revokeAll(username);
                                 } catch (Exception e) {
                                     log.error("Error during logout: {}", e.getMessage());
                                 }
@@ -84,6 +100,8 @@ public class SecurityConfig {
         config.addAllowedOrigin("http://localhost:5173");
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader(HttpHeaders.LINK);
+        config.addExposedHeader(HttpHeaders.ETAG);
         config.setAllowCredentials(true);
     
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -101,8 +119,9 @@ public class SecurityConfig {
         }
     }
 
+    // raising the strength rehashes stored passwords on their next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -2,9 +2,12 @@ package xyz.efibalogh.eventhandler.controller;
 
 import xyz.efibalogh.eventhandler.dto.jwt.AuthResponse;
 import xyz.efibalogh.eventhandler.dto.jwt.LoginRequest;
+import xyz.efibalogh.eventhandler.dto.jwt.RefreshRequest;
 import xyz.efibalogh.eventhandler.dto.jwt.RegisterRequest;
 import xyz.efibalogh.eventhandler.jwt.JwtUtil;
 import xyz.efibalogh.eventhandler.model.User;
+import xyz.efibalogh.eventhandler.service.PasswordHashingExecutor;
+import xyz.efibalogh.eventhandler.service.RefreshTokenService;
 import xyz.efibalogh.eventhandler.service.TokenBlacklistService;
 import xyz.efibalogh.eventhandler.service.JpaUserService;
 
@@ -17,9 +20,12 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/auth")
@@ -30,35 +36,44 @@ public class AuthController {
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
     private final TokenBlacklistService tokenBlacklistService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
 
     @GetMapping("/validate")
     public ResponseEntity<?> validateToken() {
-        log.info("GET /auth/validate");
+        log.debug("GET /auth/validate");
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.getPrincipal() instanceof User user) {
-            return ResponseEntity.ok(new AuthResponse(null, "Token is valid", user));
+            // the principal only holds what the token carries, the client expects the full profile here
+            User profile = (User) jpaUserService.loadUserByUsername(user.getUsername());
+            return ResponseEntity.ok(new AuthResponse(null, "Token is valid", profile));
         }
 
         return ResponseEntity.ok(new AuthResponse(null, "Token is valid", null));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
         log.info("POST /auth/login - {}", loginRequest.getUsername());
 
         if (loginRequest.getUsername() == null || loginRequest.getPassword() == null) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
-                .body(new AuthResponse(null, "Username and password must be provided", null));
+                .body(new AuthResponse(null, "Username and password must be provided", null)));
         }
 
         if (tokenBlacklistService.isUserLoggedIn(loginRequest.getUsername())) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                 .status(HttpStatus.CONFLICT)
-                .body(new AuthResponse(null, "User is already logged in. Please log out first.", null));
+                .body(new AuthResponse(null, "User is already logged in. Please log out first.", null)));
         }
 
+        // BCrypt runs on the bounded hashing pool, the request thread is released until it completes
+        return passwordHashingExecutor.supply(() -> authenticate(loginRequest));
+    }
+
+    private ResponseEntity<?> authenticate(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
@@ -66,9 +81,12 @@ public class AuthController {
 
             User user = (User) authentication.getPrincipal();
             String jwt = jwtUtil.generateToken(user);
-            tokenBlacklistService.addActiveUser(loginRequest.getUsername());
-            user.setPassword(null);
-            return ResponseEntity.ok(new AuthResponse(jwt, "Login successful", user));
+            RefreshTokenService.IssuedToken refreshToken = refreshTokenService.issue(user.getUsername());
+            tokenBlacklistService.addActiveUser(
+                    loginRequest.getUsername(),
+                    jwtUtil.extractExpiration(jwt).toInstant()
+            );
+            return ResponseEntity.ok(new AuthResponse(jwt, "Login successful", user, refreshToken.token()));
         } catch (AuthenticationException e) {
             return ResponseEntity
                 .status(HttpStatus.UNAUTHORIZED)
@@ -76,22 +94,63 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
+        log.debug("POST /auth/refresh");
+
+        if (refreshRequest.getRefreshToken() == null) {
+            return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new AuthResponse(null, "Refresh token must be provided"));
+        }
+
+        RefreshTokenService.IssuedToken refreshToken = refreshTokenService.rotate(refreshRequest.getRefreshToken())
+                .orElse(null);
+        if (refreshToken == null) {
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(new AuthResponse(null, "Invalid or expired refresh token"));
+        }
+
+        // reloaded so the new access token carries the current role, and disabled users are cut off here
+        User user;
+        try {
+            user = (User) jpaUserService.loadUserByUsername(refreshToken.username());
+        } catch (UsernameNotFoundException e) {
+            user = null;
+        }
+        if (user == null || !user.isEnabled()) {
+            refreshTokenService.revokeAll(refreshToken.username());
+            return ResponseEntity
+                .status(HttpStatus.UNAUTHORIZED)
+                .body(new AuthResponse(null, "Invalid or expired refresh token"));
+        }
+
+        String jwt = jwtUtil.generateToken(user);
+        tokenBlacklistService.addActiveUser(user.getUsername(), jwtUtil.extractExpiration(jwt).toInstant());
+        return ResponseEntity.ok(new AuthResponse(jwt, "Token refreshed", user, refreshToken.token()));
+    }
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequest registerRequest) {
         log.info("POST /auth/register - {}", registerRequest.getUsername());
 
         if (jpaUserService.existsByUsername(registerRequest.getUsername())) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                 .status(HttpStatus.CONFLICT)
-                .body(new AuthResponse(null, "Username is already in use!"));
+                .body(new AuthResponse(null, "Username is already in use!")));
         }
 
         if (jpaUserService.existsByEmail(registerRequest.getEmail())) {
-            return ResponseEntity
+            return CompletableFuture.completedFuture(ResponseEntity
                 .status(HttpStatus.CONFLICT)
-                .body(new AuthResponse(null, "Email is already in use!"));
+                .body(new AuthResponse(null, "Email is already in use!")));
         }
 
+        return passwordHashingExecutor.supply(() -> createUser(registerRequest));
+    }
+
+    private ResponseEntity<?> createUser(RegisterRequest registerRequest) {
         try {
             User user = new User();
             user.setUsername(registerRequest.getUsername());
@@ -99,7 +158,6 @@ public class AuthController {
             user.setEmail(registerRequest.getEmail());
 
             Long userId = jpaUserService.save(user);
-            user.setPassword(null);
             return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(new AuthResponse(null, "User registered successfully with id=" + userId, user));
@@ -0,0 +1,73 @@
+package xyz.efibalogh.eventhandler.controller;
+
+import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing;
+import xyz.efibalogh.eventhandler.exception.PreconditionFailedException;
+import xyz.efibalogh.eventhandler.model.Event;
+import xyz.efibalogh.eventhandler.model.Participant;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+// weak validators: Tomcat does not compress a response that carries a strong ETag, and the tags name a version
+// of the data, not the exact bytes of one encoding
+final class ETags {
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    static String forEvent(Event event) {
+        // participants are part of the representation but do not bump the event's own version
+        return weak("e" + event.getId() + "-" + event.getVersion() + "-"
+                + digest(event.getParticipants(), Participant::getId, Participant::getVersion));
+    }
+
+    static String forParticipant(Participant participant) {
+        return weak("p" + participant.getId() + "-" + participant.getVersion());
+    }
+
+    static String forParticipants(Long eventId, Collection<ParticipantOutgoing> participants) {
+        return weak("ps" + eventId + "-"
+                + digest(participants, ParticipantOutgoing::getId, ParticipantOutgoing::getVersion));
+    }
+
+    static void checkIfMatch(String ifMatch, String currentETag) throws PreconditionFailedException {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return;
+        }
+        // compared like If-None-Match, with or without the weak prefix
+        String current = opaque(currentETag);
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.strip();
+            if ("*".equals(tag) || opaque(tag).equals(current)) {
+                return;
+            }
+        }
+        throw new PreconditionFailedException("The resource has changed since it was last read!");
+    }
+
+    private static String weak(String opaque) {
+        return WEAK_PREFIX + "\"" + opaque + "\"";
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+
+    private static <T> String digest(Collection<T> participants, Function<T, Long> id, Function<T, Long> version) {
+        if (participants == null || participants.isEmpty()) {
+            return "0";
+        }
+        List<T> sorted = participants.stream()
+                .sorted(Comparator.comparing(id))
+                .toList();
+        long hash = 1;
+        for (T participant : sorted) {
+            hash = 31 * hash + id.apply(participant);
+            hash = 31 * hash + version.apply(participant);
+        }
+        return participants.size() + "." + Long.toHexString(hash);
+    }
+}
@@ -1,21 +1,39 @@
 package xyz.efibalogh.eventhandler.controller;
 
+import xyz.efibalogh.eventhandler.changes.ChangeFeed;
 import xyz.efibalogh.eventhandler.dto.incoming.FiltersIncoming;
 import xyz.efibalogh.eventhandler.dto.incoming.EventIncoming;
+import xyz.efibalogh.eventhandler.dto.incoming.EventPatchIncoming;
 import xyz.efibalogh.eventhandler.dto.outgoing.EventOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.EventStatsOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.EventSummaryOutgoing;
+import xyz.efibalogh.eventhandler.exception.BadRequestException;
 import xyz.efibalogh.eventhandler.exception.EntityNotFoundException;
+import xyz.efibalogh.eventhandler.exception.PreconditionFailedException;
 import xyz.efibalogh.eventhandler.mapper.EventMapper;
 import xyz.efibalogh.eventhandler.model.Event;
+import xyz.efibalogh.eventhandler.repo.EventFilter;
 import xyz.efibalogh.eventhandler.service.EventService;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -24,52 +42,156 @@ import java.util.Collection;
 public class EventController {
     private final EventService eventService;
     private final EventMapper eventMapper;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeed changeFeed;
+
+    @Value("${pagination.default-limit}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit}")
+    private int maxLimit;
+
+    @Value("${pagination.stream-batch-size}")
+    private int streamBatchSize;
+
+    @Value("${events.upcoming-window-days}")
+    private int upcomingWindowDays;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public Collection<EventOutgoing> getAllEvents(
+    public ResponseEntity<Collection<EventOutgoing>> getAllEvents(
             @RequestParam(value = "name",      required = false) String name,
             @RequestParam(value = "location",  required = false) String location,
             @RequestParam(value = "startDate", required = false) LocalDate startDate,
-            @RequestParam(value = "endDate",   required = false) LocalDate endDate
+            @RequestParam(value = "endDate",   required = false) LocalDate endDate,
+            @RequestParam(value = "after",     required = false) Long after,
+            @RequestParam(value = "limit",     required = false) Integer limit
     ) {
         String filterParams = buildFilterParamsString(name, location, startDate, endDate);
 
         if (!filterParams.isEmpty()) {
-            log.info("GET /events - {}", filterParams);
-            return eventMapper.getDtosFromEvents(eventService.filterCombined(name, location, startDate, endDate));
+            log.debug("GET /events - {}", filterParams);
+            return ResponseEntity.ok(
+                    eventMapper.getDtosFromEvents(eventService.filterCombined(name, location, startDate, endDate))
+            );
         }
 
-        log.info("GET /events");
-        return eventMapper.getDtosFromEvents(eventService.getAll());
+        // an unpaged request gets the largest page, the Link header leads to the rest
+        return getEventPage(after, limit == null && after == null ? maxLimit : limit);
+    }
+
+    @GetMapping("/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public Collection<EventSummaryOutgoing> getEventSummaries(
+            @RequestParam(value = "name",      required = false) String name,
+            @RequestParam(value = "location",  required = false) String location,
+            @RequestParam(value = "startDate", required = false) LocalDate startDate,
+            @RequestParam(value = "endDate",   required = false) LocalDate endDate
+    ) {
+        log.debug("GET /events/summary - {}", buildFilterParamsString(name, location, startDate, endDate));
+        return eventService.summarizeCombined(new EventFilter(name, location, startDate, endDate));
+    }
+
+    @GetMapping("/stats")
+    @ResponseStatus(HttpStatus.OK)
+    public EventStatsOutgoing getEventStats() {
+        log.debug("GET /events/stats");
+        return eventService.getStats();
+    }
+
+    @GetMapping("/upcoming")
+    @ResponseStatus(HttpStatus.OK)
+    public Collection<EventOutgoing> getUpcomingEvents(
+            @RequestParam(value = "from",  required = false) LocalDate from,
+            @RequestParam(value = "to",    required = false) LocalDate to,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        LocalDate windowStart = from == null ? LocalDate.now() : from;
+        LocalDate windowEnd = to == null ? windowStart.plusDays(upcomingWindowDays) : to;
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new BadRequestException("'from' must be before 'to'!");
+        }
+        int pageSize = resolveLimit(limit);
+        log.debug("GET /events/upcoming - from: {}, to: {}, limit: {}", windowStart, windowEnd, pageSize);
+
+        return eventMapper.getDtosFromEvents(eventService.getUpcoming(windowStart, windowEnd, pageSize));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEvents() {
+        log.debug("GET /events/stream");
+
+        // every batch is its own service call, so a slow reader holds no connection or service permit
+        // between batches
+        StreamingResponseBody body = outputStream -> {
+            Long cursor = 0L;
+            List<EventOutgoing> batch;
+            do {
+                batch = eventService.getPageDtos(cursor, streamBatchSize);
+                for (EventOutgoing eventOutgoing : batch) {
+                    outputStream.write(objectMapper.writeValueAsBytes(eventOutgoing));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                if (!batch.isEmpty()) {
+                    cursor = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == streamBatchSize);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        log.debug("GET /events/changes");
+        return changeFeed.subscribe();
     }
 
     @PostMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public Collection<EventOutgoing> searchEvents(@RequestBody FiltersIncoming eventFilter) {
-        log.info("POST /events/search");
+    public Collection<EventOutgoing> searchEvents(@RequestBody @Valid FiltersIncoming eventFilter) {
+        log.debug("POST /events/search");
+
+        Sort sort = eventFilter.getSortBy() == null
+                ? Sort.unsorted()
+                : Sort.by(
+                        eventFilter.getDirection() == null ? Sort.Direction.ASC : eventFilter.getDirection(),
+                        eventFilter.getSortBy()
+                );
 
-        return eventMapper.getDtosFromEvents(eventService.filterCombined(
+        return eventMapper.getDtosFromEvents(eventService.filterCombined(new EventFilter(
                 eventFilter.getName(),
                 eventFilter.getLocation(),
                 eventFilter.getStartDate(),
-                eventFilter.getEndDate()
-        ));
+                eventFilter.getEndDate(),
+                sort,
+                eventFilter.getLimit() == null ? null : resolveLimit(eventFilter.getLimit())
+        )));
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public EventOutgoing getEventById(@PathVariable("id") Long id) throws EntityNotFoundException {
-        log.info("GET /events/{}", id);
-        Event event = eventService.getById(id)
+    public ResponseEntity<EventOutgoing> getEventById(
+            @PathVariable("id") Long id,
+            WebRequest request
+    ) throws EntityNotFoundException {
+        log.debug("GET /events/{}", id);
+        Event event = eventService.getByIdWithParticipants(id)
                 .orElseThrow(() -> new EntityNotFoundException("Event with id=" + id + " not found"));
-        return eventMapper.getDtoFromEvent(event);
+
+        String etag = ETags.forEvent(event);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(eventMapper.getDtoFromEvent(event));
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Long addEvent(@RequestBody @Valid EventIncoming eventIncoming) {
-        log.info("POST /events");
+        log.debug("POST /events");
         return eventService.addEvent(eventMapper.getEventFromDto(eventIncoming));
     }
 
@@ -77,21 +199,80 @@ public class EventController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void updateEvent(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid EventIncoming eventIncoming
-    ) throws EntityNotFoundException {
-        log.info("PUT /events/{}", id);
-        Event event = eventService.getById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Event with id=" + id + " not found"));
-        eventService.setById(id, eventMapper.updateEventFromDto(eventIncoming, event));
+    ) throws EntityNotFoundException, PreconditionFailedException {
+        log.debug("PUT /events/{}", id);
+        Long expectedVersion = checkIfMatch(id, ifMatch);
+        eventService.update(id, expectedVersion, event -> eventMapper.updateEventFromDto(eventIncoming, event));
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patchEvent(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody @Valid EventPatchIncoming eventPatchIncoming
+    ) throws EntityNotFoundException, PreconditionFailedException {
+        log.debug("PATCH /events/{}", id);
+        Long matchedVersion = checkIfMatch(id, ifMatch);
+        Long expectedVersion = eventPatchIncoming.getVersion() == null
+                ? matchedVersion
+                : eventPatchIncoming.getVersion();
+
+        eventService.update(id, expectedVersion, event -> {
+            // the DTO checks the range when both dates are sent, a single date is checked against the stored one
+            eventMapper.patchEventFromDto(eventPatchIncoming, event);
+            if (event.getStartDate().isAfter(event.getEndDate())) {
+                throw new BadRequestException("Start date must be before end date!");
+            }
+        });
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteEvent(@PathVariable("id") Long id) throws EntityNotFoundException {
-        log.info("DELETE /events/{}", id);
+    public void deleteEvent(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws EntityNotFoundException, PreconditionFailedException {
+        log.debug("DELETE /events/{}", id);
+        checkIfMatch(id, ifMatch);
         eventService.deleteById(id);
     }
 
+    // the ETag covers the participants, so they are only loaded when the client sent If-Match; returns the
+    // version that was matched, so an update in between is still caught
+    private Long checkIfMatch(Long id, String ifMatch) throws EntityNotFoundException, PreconditionFailedException {
+        if (ifMatch == null) {
+            return null;
+        }
+        Event event = eventService.getByIdWithParticipants(id)
+                .orElseThrow(() -> new EntityNotFoundException("Event with id=" + id + " not found"));
+        ETags.checkIfMatch(ifMatch, ETags.forEvent(event));
+        return event.getVersion();
+    }
+
+    private ResponseEntity<Collection<EventOutgoing>> getEventPage(Long after, Integer limit) {
+        int pageSize = resolveLimit(limit);
+        log.debug("GET /events - after: {}, limit: {}", after, pageSize);
+
+        List<EventOutgoing> events = eventService.getPageDtos(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (events.size() == pageSize) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", events.get(events.size() - 1).getId())
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+
+        return response.body(events);
+    }
+
+    private int resolveLimit(Integer limit) {
+        return limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+    }
+
     private String buildFilterParamsString(Object... params) {
         String[] paramNames = {"name", "location", "startDate", "endDate"};
         StringBuilder sb = new StringBuilder();
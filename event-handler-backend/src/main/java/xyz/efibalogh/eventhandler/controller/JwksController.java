@@ -0,0 +1,33 @@
+package xyz.efibalogh.eventhandler.controller;
+
+import xyz.efibalogh.eventhandler.jwt.JwtKeyRing;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+    private static final MediaType JWK_SET = MediaType.parseMediaType("application/jwk-set+json");
+    private static final CacheControl JWKS_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(15)).cachePublic();
+
+    private final JwtKeyRing jwtKeyRing;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        log.debug("GET /.well-known/jwks.json");
+        return ResponseEntity.ok()
+                .cacheControl(JWKS_CACHE_CONTROL)
+                .contentType(JWK_SET)
+                .body(jwtKeyRing.getJwks());
+    }
+}
@@ -1,20 +1,31 @@
 package xyz.efibalogh.eventhandler.controller;
 
 import xyz.efibalogh.eventhandler.dto.incoming.ParticipantIncoming;
+import xyz.efibalogh.eventhandler.dto.outgoing.ImportReportOutgoing;
 import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing;
 import xyz.efibalogh.eventhandler.exception.EntityNotFoundException;
+import xyz.efibalogh.eventhandler.exception.ImportFormatException;
+import xyz.efibalogh.eventhandler.exception.PreconditionFailedException;
 import xyz.efibalogh.eventhandler.mapper.ParticipantMapper;
 import xyz.efibalogh.eventhandler.model.Event;
 import xyz.efibalogh.eventhandler.model.Participant;
 import xyz.efibalogh.eventhandler.service.EventService;
+import xyz.efibalogh.eventhandler.service.ParticipantImportService;
 import xyz.efibalogh.eventhandler.service.ParticipantService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 
 @Slf4j
@@ -24,31 +35,39 @@ import java.util.Collection;
 public class ParticipantController {
     private final ParticipantService participantService;
     private final EventService eventService;
+    private final ParticipantImportService participantImportService;
     private final ParticipantMapper participantMapper;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public Collection<ParticipantOutgoing> getAll(
-            @PathVariable("eventId") Long eventId
+    public ResponseEntity<Collection<ParticipantOutgoing>> getAll(
+            @PathVariable("eventId") Long eventId,
+            WebRequest request
     ) throws EntityNotFoundException {
-        log.info("GET /events/{}/participants", eventId);
-        Event event = eventService.getById(eventId)
-                .orElseThrow(() -> new EntityNotFoundException("Event with id=" + eventId + " not found"));
-        Collection<Participant> participants = event.getParticipants();
+        log.debug("GET /events/{}/participants", eventId);
+        checkEventExists(eventId);
+        Collection<ParticipantOutgoing> participants = participantService.getDtosByEvent(eventId);
 
-        return participantMapper.getDtosFromParticipants(participants);
+        String etag = ETags.forParticipants(eventId, participants);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(participants);
     }
 
     @GetMapping("/{participantId}")
-    @ResponseStatus(HttpStatus.OK)
-    public ParticipantOutgoing getById(
+    public ResponseEntity<ParticipantOutgoing> getById(
             @PathVariable("eventId") Long eventId,
-            @PathVariable("participantId") Long participantId
+            @PathVariable("participantId") Long participantId,
+            WebRequest request
     ) throws EntityNotFoundException {
-        log.info("GET /events/{}/participants/{}", eventId, participantId);
+        log.debug("GET /events/{}/participants/{}", eventId, participantId);
 
         Participant participant = checkParticipantBelongsToEvent(eventId, participantId);
-        return participantMapper.getDtoFromParticipant(participant);
+        String etag = ETags.forParticipant(participant);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(participantMapper.getDtoFromParticipant(participant));
     }
 
     @PostMapping
@@ -57,7 +76,7 @@ public class ParticipantController {
             @PathVariable("eventId") Long eventId,
             @Valid @RequestBody ParticipantIncoming participantIncoming
     ) throws EntityNotFoundException {
-        log.info("POST /events/{}/participants", eventId);
+        log.debug("POST /events/{}/participants", eventId);
         Event event = eventService.getById(eventId)
                 .orElseThrow(() -> new EntityNotFoundException("Event with id=" + eventId + " not found"));
         
@@ -67,16 +86,62 @@ public class ParticipantController {
         return participantService.addParticipant(participant);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ImportReportOutgoing importJson(
+            @PathVariable("eventId") Long eventId,
+            InputStream body
+    ) throws EntityNotFoundException, ImportFormatException {
+        log.debug("POST /events/{}/participants/import (json)", eventId);
+        checkEventExists(eventId);
+
+        return participantImportService.importJson(eventId, body);
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    @ResponseStatus(HttpStatus.OK)
+    public ImportReportOutgoing importCsv(
+            @PathVariable("eventId") Long eventId,
+            InputStream body
+    ) throws EntityNotFoundException, ImportFormatException {
+        log.debug("POST /events/{}/participants/import (csv)", eventId);
+        checkEventExists(eventId);
+
+        return participantImportService.importCsv(eventId, body);
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public ImportReportOutgoing importFile(
+            @PathVariable("eventId") Long eventId,
+            @RequestParam("file") MultipartFile file
+    ) throws EntityNotFoundException, ImportFormatException {
+        log.debug("POST /events/{}/participants/import (file {})", eventId, file.getOriginalFilename());
+        checkEventExists(eventId);
+
+        String filename = file.getOriginalFilename() == null ? "" : file.getOriginalFilename();
+        try (InputStream inputStream = file.getInputStream()) {
+            if (MediaType.APPLICATION_JSON_VALUE.equals(file.getContentType()) || filename.endsWith(".json")) {
+                return participantImportService.importJson(eventId, inputStream);
+            }
+            return participantImportService.importCsv(eventId, inputStream);
+        } catch (IOException e) {
+            throw new ImportFormatException("Error reading uploaded file: " + e.getMessage(), e);
+        }
+    }
+
     @PutMapping("/{participantId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void updateParticipant(
             @PathVariable("eventId") Long eventId,
             @PathVariable("participantId") Long participantId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ParticipantIncoming participantIncoming
-    ) throws EntityNotFoundException {
-        log.info("PUT /events/{}/participants/{}", eventId, participantId);
+    ) throws EntityNotFoundException, PreconditionFailedException {
+        log.debug("PUT /events/{}/participants/{}", eventId, participantId);
 
         Participant participant = checkParticipantBelongsToEvent(eventId, participantId);
+        ETags.checkIfMatch(ifMatch, ETags.forParticipant(participant));
         Participant updatedParticipant = participantMapper.updateParticipantFromDto(participantIncoming, participant);
         participantService.setById(participantId, updatedParticipant);
     }
@@ -85,14 +150,22 @@ public class ParticipantController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteParticipant(
             @PathVariable("eventId") Long eventId,
-            @PathVariable("participantId") Long participantId
-    ) throws EntityNotFoundException {
-        log.info("DELETE /events/{}/participants/{}", eventId, participantId);
+            @PathVariable("participantId") Long participantId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws EntityNotFoundException, PreconditionFailedException {
+        log.debug("DELETE /events/{}/participants/{}", eventId, participantId);
 
-        checkParticipantBelongsToEvent(eventId, participantId);
+        Participant participant = checkParticipantBelongsToEvent(eventId, participantId);
+        ETags.checkIfMatch(ifMatch, ETags.forParticipant(participant));
         participantService.deleteById(participantId);
     }
 
+    private void checkEventExists(Long eventId) throws EntityNotFoundException {
+        if (eventService.getById(eventId).isEmpty()) {
+            throw new EntityNotFoundException("Event with id=" + eventId + " not found");
+        }
+    }
+
     private Participant checkParticipantBelongsToEvent(
             Long eventId,
             Long participantId
@@ -24,7 +24,7 @@ public class UserController {
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('ADMIN')")
     public Collection<User> getAllUsers() {
-        log.info("GET /users");
+        log.debug("GET /users");
         return jpaUserService.getAll();
     }
 
@@ -32,7 +32,7 @@ public class UserController {
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("hasRole('ADMIN') or @jpaUserService.isCurrentUser(#id)")
     public User getUserById(@PathVariable Long id) {
-        log.info("GET /users/{}", id);
+        log.debug("GET /users/{}", id);
         return jpaUserService.getById(id);
     }
 
@@ -40,7 +40,7 @@ public class UserController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("hasRole('ADMIN') or @jpaUserService.isCurrentUser(#id)")
     public void deleteUser(@PathVariable Long id) {
-        log.info("DELETE /users/{}", id);
+        log.debug("DELETE /users/{}", id);
         jpaUserService.deleteById(id);
     }
 
@@ -48,7 +48,7 @@ public class UserController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("hasRole('ADMIN') or @jpaUserService.isCurrentUser(#id)")
     public void updateTheme(@PathVariable Long id, @RequestBody ThemeIncoming theme) {
-        log.info("PUT /users/{}/theme - {}", id, theme.getTheme());
+        log.debug("PUT /users/{}/theme - {}", id, theme.getTheme());
         jpaUserService.updateTheme(id, theme.getTheme());
     }
 
@@ -56,7 +56,7 @@ public class UserController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @PreAuthorize("hasRole('ADMIN') or @jpaUserService.isCurrentUser(#id)")
     public void updateLanguage(@PathVariable Long id, @RequestBody LanguageIncoming language) {
-        log.info("PUT /users/{}/language - {}", id, language.getLanguage());
+        log.debug("PUT /users/{}/language - {}", id, language.getLanguage());
         jpaUserService.updateLanguage(id, language.getLanguage());
     }
 }
@@ -0,0 +1,32 @@
+package xyz.efibalogh.eventhandler.dto.incoming;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class EventPatchIncoming {
+    @Pattern(regexp = ".*\\S.*", message = "Name cannot be blank!")
+    private String name;
+
+    @Pattern(regexp = ".*\\S.*", message = "Location cannot be blank!")
+    private String location;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate startDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate endDate;
+
+    private Long version;
+
+    @JsonIgnore
+    @AssertTrue(message = "Start date must be before end date!")
+    boolean isValidDateRange() {
+        return startDate == null || endDate == null || !startDate.isAfter(endDate);
+    }
+}
@@ -1,6 +1,9 @@
 package xyz.efibalogh.eventhandler.dto.incoming;
 
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import lombok.Data;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 
@@ -10,4 +13,12 @@ public class FiltersIncoming {
     private String location;
     private LocalDate startDate;
     private LocalDate endDate;
+
+    @Pattern(regexp = "id|name|location|startDate|endDate", message = "Unsupported sort field!")
+    private String sortBy;
+
+    private Sort.Direction direction;
+
+    @Positive(message = "Limit must be positive!")
+    private Integer limit;
 }
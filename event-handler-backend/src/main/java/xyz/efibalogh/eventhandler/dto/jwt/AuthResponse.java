@@ -11,6 +11,13 @@ public class AuthResponse {
     private String token;
     private String message;
     private User user;
+    private String refreshToken;
+
+    public AuthResponse(String token, String message, User user) {
+        this.token = token;
+        this.message = message;
+        this.user = user;
+    }
 
     public AuthResponse(String token, String message) {
         this.token = token;
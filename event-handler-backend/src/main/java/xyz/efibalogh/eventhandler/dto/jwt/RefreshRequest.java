@@ -0,0 +1,8 @@
+package xyz.efibalogh.eventhandler.dto.jwt;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    private String refreshToken;
+}
@@ -2,11 +2,13 @@ package xyz.efibalogh.eventhandler.dto.outgoing;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.util.Collection;
 
 @Data
+@NoArgsConstructor
 public class EventOutgoing {
     private Long id;
     private String name;
@@ -18,5 +20,23 @@ public class EventOutgoing {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate endDate;
 
+    private Long version;
+
     private Collection<ParticipantOutgoing> participants;
+
+    public EventOutgoing(
+            Long id,
+            String name,
+            String location,
+            LocalDate startDate,
+            LocalDate endDate,
+            Long version
+    ) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.version = version;
+    }
 }
@@ -0,0 +1,14 @@
+package xyz.efibalogh.eventhandler.dto.outgoing;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EventStatsOutgoing {
+    private long totalEvents;
+    private long totalParticipants;
+    private List<ParticipantCountOutgoing> participantsPerEvent;
+    private List<MonthCountOutgoing> eventsPerMonth;
+    private List<LocationCountOutgoing> eventsPerLocation;
+}
@@ -0,0 +1,34 @@
+package xyz.efibalogh.eventhandler.dto.outgoing;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportReportOutgoing {
+    private long imported;
+    private long failed;
+    // only the first failures are listed, so one bad upload cannot blow up the response; failed counts them all
+    private List<ImportFailureOutgoing> failures = new ArrayList<>();
+    private long unlistedFailures;
+
+    @JsonIgnore
+    private int maxListedFailures = Integer.MAX_VALUE;
+
+    public ImportReportOutgoing(int maxListedFailures) {
+        this.maxListedFailures = maxListedFailures;
+    }
+
+    public void addFailure(long row, String message) {
+        failed++;
+        if (failures.size() < maxListedFailures) {
+            failures.add(new ImportFailureOutgoing(row, message));
+        } else {
+            unlistedFailures++;
+        }
+    }
+}
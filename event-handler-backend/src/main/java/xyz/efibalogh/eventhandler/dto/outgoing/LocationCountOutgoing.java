@@ -0,0 +1,13 @@
+package xyz.efibalogh.eventhandler.dto.outgoing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationCountOutgoing {
+    private String location;
+    private Long eventCount;
+}
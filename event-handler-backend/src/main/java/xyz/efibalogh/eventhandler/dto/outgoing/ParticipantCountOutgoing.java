@@ -0,0 +1,14 @@
+package xyz.efibalogh.eventhandler.dto.outgoing;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantCountOutgoing {
+    private Long eventId;
+    private String eventName;
+    private Long participantCount;
+}
@@ -1,12 +1,17 @@
 package xyz.efibalogh.eventhandler.dto.outgoing;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ParticipantOutgoing {
     private Long id;
     private String name;
     private String email;
     private String phoneNumber;
     private Long eventId;
+    private Long version;
 }
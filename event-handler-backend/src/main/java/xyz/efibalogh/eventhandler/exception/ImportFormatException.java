@@ -0,0 +1,15 @@
+package xyz.efibalogh.eventhandler.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ImportFormatException extends Exception {
+    public ImportFormatException(String message) {
+        super(message);
+    }
+
+    public ImportFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,164 @@
+package xyz.efibalogh.eventhandler.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Asymmetric keys read from jwt.keys.dir: every <kid>.pub (X.509 PEM) verifies tokens carrying that kid,
+// and the active kid also needs a <kid>.key (PKCS#8 PEM) to sign with. During a rotation the new public
+// key is rolled out first, then jwt.keys.active is switched; the old .pub stays until its tokens expire.
+@Slf4j
+@Component
+public class JwtKeyRing {
+    private static final String PUBLIC_KEY_SUFFIX = ".pub";
+    private static final String PRIVATE_KEY_SUFFIX = ".key";
+
+    public record VerificationKey(String kid, PublicKey publicKey, SignatureAlgorithm algorithm) {}
+
+    public record SigningKey(String kid, PrivateKey privateKey, SignatureAlgorithm algorithm) {}
+
+    private final Map<String, VerificationKey> verificationKeys;
+    private final SigningKey signingKey;
+    private final Map<String, Object> jwks;
+
+    public JwtKeyRing(
+            @Value("${jwt.keys.dir}") String keysDir,
+            @Value("${jwt.keys.active}") String activeKid
+    ) {
+        if (keysDir.isBlank()) {
+            this.verificationKeys = Map.of();
+            this.signingKey = null;
+            this.jwks = Map.of("keys", List.of());
+            return;
+        }
+
+        Path dir = Path.of(keysDir);
+        this.verificationKeys = Collections.unmodifiableMap(loadPublicKeys(dir));
+        this.signingKey = activeKid.isBlank() ? null : loadSigningKey(dir, activeKid);
+        this.jwks = Map.of("keys", toJwks(verificationKeys.values()));
+        log.info("Loaded {} JWT verification keys, signing with kid={}", verificationKeys.size(), activeKid);
+    }
+
+    public boolean hasSigningKey() {
+        return signingKey != null;
+    }
+
+    public SigningKey getSigningKey() {
+        return signingKey;
+    }
+
+    public VerificationKey getVerificationKey(String kid) {
+        return kid == null ? null : verificationKeys.get(kid);
+    }
+
+    // built once at startup, the key set only changes with a restart
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    private static Map<String, VerificationKey> loadPublicKeys(Path dir) {
+        Map<String, VerificationKey> keys = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(PUBLIC_KEY_SUFFIX)).toList()) {
+                String kid = kidOf(file, PUBLIC_KEY_SUFFIX);
+                PublicKey publicKey = readPublicKey(file);
+                keys.put(kid, new VerificationKey(kid, publicKey, algorithmFor(publicKey)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading JWT keys from " + dir, e);
+        }
+        return keys;
+    }
+
+    private SigningKey loadSigningKey(Path dir, String kid) {
+        VerificationKey verificationKey = verificationKeys.get(kid);
+        if (verificationKey == null) {
+            throw new IllegalStateException("No public key " + kid + PUBLIC_KEY_SUFFIX + " for the active JWT key");
+        }
+        byte[] der = readPem(dir.resolve(kid + PRIVATE_KEY_SUFFIX));
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(verificationKey.publicKey().getAlgorithm());
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(der));
+            return new SigningKey(kid, privateKey, verificationKey.algorithm());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid private key for JWT key " + kid, e);
+        }
+    }
+
+    private static PublicKey readPublicKey(Path file) {
+        byte[] der = readPem(file);
+        for (String algorithm : List.of("EC", "RSA")) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(new X509EncodedKeySpec(der));
+            } catch (GeneralSecurityException e) {
+                log.trace("{} is not an {} key", file, algorithm);
+            }
+        }
+        throw new IllegalStateException("Unsupported public key in " + file + ", expected EC or RSA");
+    }
+
+    private static SignatureAlgorithm algorithmFor(PublicKey publicKey) {
+        if (publicKey instanceof ECPublicKey ecKey) {
+            return switch (ecKey.getParams().getCurve().getField().getFieldSize()) {
+                case 256 -> Jwts.SIG.ES256;
+                case 384 -> Jwts.SIG.ES384;
+                case 521 -> Jwts.SIG.ES512;
+                default -> throw new IllegalStateException("Unsupported EC curve for JWT signing");
+            };
+        }
+        return Jwts.SIG.RS256;
+    }
+
+    private static List<Map<String, Object>> toJwks(Iterable<VerificationKey> keys) {
+        List<Map<String, Object>> jwkList = new ArrayList<>();
+        for (VerificationKey key : keys) {
+            PublicJwk<?> jwk = Jwks.builder()
+                    .key(key.publicKey())
+                    .id(key.kid())
+                    .algorithm(key.algorithm().getId())
+                    .publicKeyUse("sig")
+                    .build();
+            jwkList.add(new LinkedHashMap<>(jwk));
+        }
+        return Collections.unmodifiableList(jwkList);
+    }
+
+    private static byte[] readPem(Path file) {
+        try {
+            String pem = Files.readString(file, StandardCharsets.US_ASCII);
+            String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+            return Base64.getDecoder().decode(base64);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading JWT key " + file, e);
+        }
+    }
+
+    private static String kidOf(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - suffix.length());
+    }
+}
@@ -1,29 +1,77 @@
 package xyz.efibalogh.eventhandler.jwt;
 
+import xyz.efibalogh.eventhandler.model.Role;
+import xyz.efibalogh.eventhandler.model.User;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
-    @Value("${jwt.secret}")
-    private String secret;
+    static final String ROLE_CLAIM = "role";
+    static final String USER_ID_CLAIM = "uid";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Long expiration;
+    private final JwtKeyRing keyRing;
+    // HMAC key from jwt.secret: signs when no asymmetric key is active, and verifies tokens issued without a kid
+    private final SecretKey hmacKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+    private final Timer verificationTimer;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtil(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") Long expiration,
+            @Value("${jwt.cache.max-size}") long cacheMaxSize,
+            JwtKeyRing keyRing,
+            MeterRegistry meterRegistry
+    ) {
+        this.expiration = expiration;
+        this.keyRing = keyRing;
+        this.hmacKey = secret.isBlank() ? null : Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        if (hmacKey == null && !keyRing.hasSigningKey()) {
+            throw new IllegalStateException("Either jwt.secret or an active key in jwt.keys must be configured");
+        }
+        this.parser = Jwts.parser()
+                .keyLocator(new KidLocator())
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        // same tag keys as Spring's cache metrics, Prometheus rejects a second cache.size with a different set
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens",
+                "cache.manager", "jwtUtil", "name", "jwtVerifiedTokens");
+        this.verificationTimer = Timer.builder("jwt.verification")
+                .description("Signature verification and parsing of tokens missing from the cache")
+                .register(meterRegistry);
     }
 
     public String extractUsername(String token) {
@@ -39,35 +87,98 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Claims extractAllClaims(String token) {
+        return verifiedTokens.get(
+                hashToken(token),
+                key -> verificationTimer.record(() -> parser.parseSignedClaims(token).getPayload())
+        );
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new ConcurrentHashMap<>();
+        // carried in the token so requests can be authorized without loading the user
+        if (userDetails instanceof User user) {
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole().name());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
+    // null for tokens issued before role claims existed, those still need a user lookup
+    public User principalFromClaims(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(claims.getSubject());
+        user.setRole(Role.valueOf(role));
+        return user;
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
-                .compact();
+        JwtBuilder builder = Jwts.builder()
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + expiration));
+        if (keyRing.hasSigningKey()) {
+            JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+            builder.header().keyId(signingKey.kid()).and()
+                    .signWith(signingKey.privateKey(), signingKey.algorithm());
+        } else {
+            builder.signWith(hmacKey);
+        }
+        return builder.compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return validateClaims(extractAllClaims(token), userDetails);
+    }
+
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date());
+    }
+
+    private final class KidLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            if (header.getKeyId() == null) {
+                return hmacKey;
+            }
+            JwtKeyRing.VerificationKey key = keyRing.getVerificationKey(header.getKeyId());
+            // the parser rejects a null key, and a key whose type does not match the header's alg
+            return key == null ? null : key.publicKey();
+        }
+    }
+
+    private static final class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,11 @@
+package xyz.efibalogh.eventhandler.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+    // per-request events, sampled by SamplingTurboFilter instead of being written every time
+    public static final Marker HOT_PATH = MarkerFactory.getMarker("HOT_PATH");
+
+    private LogMarkers() {}
+}
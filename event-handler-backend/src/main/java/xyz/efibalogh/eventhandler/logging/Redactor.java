@@ -0,0 +1,13 @@
+package xyz.efibalogh.eventhandler.logging;
+
+public final class Redactor {
+    private Redactor() {}
+
+    public static String token(String token) {
+        if (token == null) {
+            return "null";
+        }
+        int visible = Math.min(6, token.length() / 4);
+        return "***" + token.substring(token.length() - visible) + " (" + token.length() + " chars)";
+    }
+}
@@ -0,0 +1,43 @@
+package xyz.efibalogh.eventhandler.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            if (status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+                // server errors are logged at WARN, which is neither sampled nor dropped by the async appender
+                log.warn("method={} path={} status={} durationMs={}",
+                        request.getMethod(), request.getRequestURI(), status, durationMs);
+            } else if (log.isInfoEnabled()) {
+                log.info(LogMarkers.HOT_PATH, "method={} path={} status={} durationMs={}",
+                        request.getMethod(), request.getRequestURI(), status, durationMs);
+            }
+        }
+    }
+}
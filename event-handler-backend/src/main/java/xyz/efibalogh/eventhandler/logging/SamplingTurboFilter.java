@@ -0,0 +1,30 @@
+package xyz.efibalogh.eventhandler.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class SamplingTurboFilter extends TurboFilter {
+    private String markerName = LogMarkers.HOT_PATH.getName();
+    private double rate = 1.0;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || marker == null || !marker.contains(markerName) || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setMarker(String markerName) {
+        this.markerName = markerName;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+}
@@ -1,19 +1,23 @@
 package xyz.efibalogh.eventhandler.mapper;
 
 import xyz.efibalogh.eventhandler.dto.incoming.EventIncoming;
+import xyz.efibalogh.eventhandler.dto.incoming.EventPatchIncoming;
 import xyz.efibalogh.eventhandler.dto.outgoing.EventOutgoing;
 import xyz.efibalogh.eventhandler.model.Event;
 
+import org.mapstruct.BeanMapping;
 import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
 import java.util.Collection;
 
 @Mapper(componentModel = "spring", uses = {ParticipantMapper.class})
 public interface EventMapper {
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "participants", ignore = true)
     Event getEventFromDto(EventIncoming eventIncoming);
 
@@ -24,6 +28,13 @@ public interface EventMapper {
     Collection<EventOutgoing> getDtosFromEvents(Iterable<Event> events);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "participants", ignore = true)
     Event updateEventFromDto(EventIncoming eventIncoming, @MappingTarget Event event);
+
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "participants", ignore = true)
+    Event patchEventFromDto(EventPatchIncoming eventPatchIncoming, @MappingTarget Event event);
 }
\ No newline at end of file
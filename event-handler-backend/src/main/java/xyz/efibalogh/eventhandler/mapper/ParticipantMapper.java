@@ -13,6 +13,7 @@ import java.util.Collection;
 @Mapper(componentModel = "spring")
 public interface ParticipantMapper {
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "event", ignore = true)
     Participant getParticipantFromDto(ParticipantIncoming participantIncoming);
 
@@ -22,6 +23,7 @@ public interface ParticipantMapper {
     Collection<ParticipantOutgoing> getDtosFromParticipants(Collection<Participant> participants);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "event", ignore = true)
     Participant updateParticipantFromDto(
             ParticipantIncoming participantIncoming,
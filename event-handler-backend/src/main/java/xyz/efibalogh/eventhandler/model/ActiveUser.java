@@ -0,0 +1,24 @@
+package xyz.efibalogh.eventhandler.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ActiveUsers")
+public class ActiveUser implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String username;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -19,7 +19,9 @@ public abstract class BaseEntity implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    // table-backed pooled sequences on MySQL (<table>_SEQ, raised past MAX(id) by IdSequences), so inserts
+    // can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     protected Long id;
 }
@@ -2,6 +2,9 @@ package xyz.efibalogh.eventhandler.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.Collection;
@@ -12,7 +15,15 @@ import java.util.Collection;
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "Events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@Table(name = "Events", indexes = {
+    @Index(name = "idx_events_start_end", columnList = "startDate, endDate"),
+    @Index(name = "idx_events_end", columnList = "endDate"),
+    @Index(name = "idx_events_name", columnList = "name"),
+    @Index(name = "idx_events_location", columnList = "location")
+})
 public class Event extends BaseEntity {
     @Column(nullable = false)
     private String name;
@@ -26,6 +37,11 @@ public class Event extends BaseEntity {
     @Column(nullable = false)
     private LocalDate endDate;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, orphanRemoval = true)
     private Collection<Participant> participants;
 
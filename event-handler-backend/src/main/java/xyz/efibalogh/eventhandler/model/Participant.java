@@ -2,6 +2,8 @@ package xyz.efibalogh.eventhandler.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @NoArgsConstructor
@@ -9,9 +11,13 @@ import lombok.*;
 @ToString(callSuper = true)
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "Participants", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"email", "event_id"}),
     @UniqueConstraint(columnNames = {"phoneNumber", "event_id"})
+}, indexes = {
+    @Index(name = "idx_participants_event", columnList = "event_id")
 })
 public class Participant extends BaseEntity {
     @Column(nullable = false)
@@ -23,6 +29,10 @@ public class Participant extends BaseEntity {
     @Column
     private String phoneNumber;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
     private Event event;
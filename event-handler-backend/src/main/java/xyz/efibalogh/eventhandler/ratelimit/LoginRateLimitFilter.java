@@ -0,0 +1,187 @@
+package xyz.efibalogh.eventhandler.ratelimit;
+
+import xyz.efibalogh.eventhandler.exception.GlobalExceptionHandler.ErrorMessage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String REGISTER_PATH = "/auth/register";
+
+    private final RateLimiter ipLimiter;
+    private final RateLimiter usernameLimiter;
+    private final ObjectMapper objectMapper;
+    private final int maxBodyBytes;
+
+    public LoginRateLimitFilter(
+            @Value("${rate-limit.ip.requests}") int ipRequests,
+            @Value("${rate-limit.ip.period}") Duration ipPeriod,
+            @Value("${rate-limit.ip.burst}") int ipBurst,
+            @Value("${rate-limit.username.requests}") int usernameRequests,
+            @Value("${rate-limit.username.period}") Duration usernamePeriod,
+            @Value("${rate-limit.username.burst}") int usernameBurst,
+            @Value("${rate-limit.idle-expiry}") Duration idleExpiry,
+            @Value("${rate-limit.max-keys}") long maxKeys,
+            @Value("${rate-limit.max-body-bytes}") int maxBodyBytes,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.ipLimiter = new RateLimiter("ip", ipRequests, ipPeriod, ipBurst, idleExpiry, maxKeys, meterRegistry);
+        this.usernameLimiter = new RateLimiter(
+                "username", usernameRequests, usernamePeriod, usernameBurst, idleExpiry, maxKeys, meterRegistry
+        );
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !LOGIN_PATH.equals(path) && !REGISTER_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        // the per-IP check needs no body, so floods are shed before anything is read or parsed
+        long wait = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (wait > 0) {
+            log.warn("Rate limited {} from {}", request.getRequestURI(), request.getRemoteAddr());
+            reject(response, wait);
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!LOGIN_PATH.equals(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large!");
+            return;
+        }
+        String username = extractUsername(body);
+        if (username != null) {
+            wait = usernameLimiter.tryAcquire(username.toLowerCase(Locale.ROOT));
+            if (wait > 0) {
+                log.warn("Rate limited login for user {} from {}", username, request.getRemoteAddr());
+                reject(response, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(new CachedBodyRequest(request, body), response);
+    }
+
+    private String extractUsername(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            return username.isTextual() ? username.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, please try again later!");
+    }
+
+    // written directly, sendError would trigger an ERROR dispatch that the security chain rejects
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorMessage(status.value(), message));
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Cached request bodies are read synchronously");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
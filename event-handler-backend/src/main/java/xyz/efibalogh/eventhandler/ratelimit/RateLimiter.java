@@ -0,0 +1,51 @@
+package xyz.efibalogh.eventhandler.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+public class RateLimiter {
+    private final long emissionInterval;
+    private final long burstTolerance;
+    // idle keys expire; past the size bound Caffeine's W-TinyLFU evicts by frequency as well as recency, so a
+    // burst of one-off keys (e.g. spoofed usernames) mostly evicts itself instead of busy buckets
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rejected;
+
+    public RateLimiter(
+            String scope,
+            int requests,
+            Duration period,
+            int burst,
+            Duration idleExpiry,
+            long maxKeys,
+            MeterRegistry meterRegistry
+    ) {
+        this.emissionInterval = period.toNanos() / requests;
+        this.burstTolerance = emissionInterval * (Math.max(burst, 1) - 1);
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiry)
+                .maximumSize(maxKeys)
+                .build();
+        this.rejected = Counter.builder("auth.rate-limit.rejected")
+                .tag("scope", scope)
+                .register(meterRegistry);
+        Gauge.builder("auth.rate-limit.keys", buckets, Cache::estimatedSize)
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    // 0 when the request may proceed, otherwise the nanoseconds the caller has to wait
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        long wait = buckets.get(key, k -> new TokenBucket(now)).tryConsume(now, emissionInterval, burstTolerance);
+        if (wait > 0) {
+            rejected.increment();
+        }
+        return wait;
+    }
+}
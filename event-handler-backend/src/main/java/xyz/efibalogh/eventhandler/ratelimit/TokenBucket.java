@@ -0,0 +1,27 @@
+package xyz.efibalogh.eventhandler.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// generic cell rate algorithm: the whole bucket is one "theoretical arrival time", updated with a CAS loop
+final class TokenBucket {
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    // 0 when a token was taken, otherwise the nanoseconds until the next one becomes available
+    long tryConsume(long now, long emissionInterval, long burstTolerance) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long start = Math.max(current, now);
+            long wait = start - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+}
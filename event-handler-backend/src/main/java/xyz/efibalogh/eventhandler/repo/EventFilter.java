@@ -0,0 +1,18 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+public record EventFilter(
+        String name,
+        String location,
+        LocalDate startDate,
+        LocalDate endDate,
+        Sort sort,
+        Integer limit
+) {
+    public EventFilter(String name, String location, LocalDate startDate, LocalDate endDate) {
+        this(name, location, startDate, endDate, Sort.unsorted(), null);
+    }
+}
@@ -0,0 +1,13 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import xyz.efibalogh.eventhandler.dto.outgoing.EventSummaryOutgoing;
+import xyz.efibalogh.eventhandler.exception.DataAccessException;
+import xyz.efibalogh.eventhandler.model.Event;
+
+import java.util.List;
+
+public interface EventFilterDao {
+    List<Event> filter(EventFilter filter) throws DataAccessException;
+
+    List<EventSummaryOutgoing> summarize(EventFilter filter) throws DataAccessException;
+}
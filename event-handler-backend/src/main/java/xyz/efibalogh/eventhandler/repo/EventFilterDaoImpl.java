@@ -0,0 +1,162 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import xyz.efibalogh.eventhandler.dto.outgoing.EventSummaryOutgoing;
+import xyz.efibalogh.eventhandler.model.Event;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class EventFilterDaoImpl implements EventFilterDao {
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "name", "location", "startDate", "endDate");
+
+    private static final String EVENT_SELECT = "SELECT e FROM Event e";
+    private static final String EVENT_FETCH_SELECT = "SELECT e FROM Event e LEFT JOIN FETCH e.participants";
+    private static final String SUMMARY_SELECT = "SELECT new "
+            + "xyz.efibalogh.eventhandler.dto.outgoing.EventSummaryOutgoing("
+            + "e.id, e.name, e.location, e.startDate, e.endDate, COUNT(p)) "
+            + "FROM Event e LEFT JOIN e.participants p";
+    private static final String SUMMARY_GROUP_BY = " GROUP BY e.id, e.name, e.location, e.startDate, e.endDate";
+
+    // one JPQL string per predicate combination, so Hibernate's plan cache compiles each shape only once
+    private final Map<String, String> queryShapes = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private FullTextIndexes fullTextIndexes;
+
+    @Override
+    public List<Event> filter(EventFilter filter) {
+        // a collection fetch cannot be combined with a row limit, limited queries rely on batch fetching instead
+        String select = filter.limit() == null ? EVENT_FETCH_SELECT : EVENT_SELECT;
+        TypedQuery<Event> query = entityManager.createQuery(buildQuery(select, "", filter), Event.class);
+        return bindAndFetch(query, filter);
+    }
+
+    @Override
+    public List<EventSummaryOutgoing> summarize(EventFilter filter) {
+        Sort sort = filter.sort() == null || filter.sort().isUnsorted() ? Sort.by("id") : filter.sort();
+        EventFilter sortedFilter = new EventFilter(
+                filter.name(),
+                filter.location(),
+                filter.startDate(),
+                filter.endDate(),
+                sort,
+                filter.limit()
+        );
+        TypedQuery<EventSummaryOutgoing> query = entityManager.createQuery(
+                buildQuery(SUMMARY_SELECT, SUMMARY_GROUP_BY, sortedFilter),
+                EventSummaryOutgoing.class
+        );
+        return bindAndFetch(query, sortedFilter);
+    }
+
+    private String buildQuery(String select, String groupBy, EventFilter filter) {
+        boolean hasName = StringUtils.hasText(filter.name());
+        boolean hasLocation = StringUtils.hasText(filter.location());
+        boolean nameFullText = searchesFullText(FullTextIndexes.Column.EVENT_NAME, filter.name());
+        boolean locationFullText = searchesFullText(FullTextIndexes.Column.EVENT_LOCATION, filter.location());
+        boolean hasStartDate = filter.startDate() != null;
+        boolean hasEndDate = filter.endDate() != null;
+        Sort sort = filter.sort() == null ? Sort.unsorted() : filter.sort();
+
+        String shape = String.join("|",
+                select,
+                String.valueOf(hasName),
+                String.valueOf(nameFullText),
+                String.valueOf(hasLocation),
+                String.valueOf(locationFullText),
+                String.valueOf(hasStartDate),
+                String.valueOf(hasEndDate),
+                sort.toString()
+        );
+
+        return queryShapes.computeIfAbsent(shape, key -> {
+            StringBuilder jpql = new StringBuilder(select);
+            String keyword = " WHERE ";
+            // MATCH finds the candidate rows through the index, LIKE keeps the exact substring semantics
+            if (nameFullText) {
+                jpql.append(keyword).append(FullTextFunctions.MATCH_AGAINST).append("(e.name, :namePhrase) > 0");
+                keyword = " AND ";
+            }
+            if (hasName) {
+                jpql.append(keyword).append("e.name LIKE :name");
+                keyword = " AND ";
+            }
+            if (locationFullText) {
+                jpql.append(keyword).append(FullTextFunctions.MATCH_AGAINST)
+                    .append("(e.location, :locationPhrase) > 0");
+                keyword = " AND ";
+            }
+            if (hasLocation) {
+                jpql.append(keyword).append("e.location LIKE :location");
+                keyword = " AND ";
+            }
+            if (hasStartDate) {
+                jpql.append(keyword).append("e.startDate >= :startDate");
+                keyword = " AND ";
+            }
+            if (hasEndDate) {
+                jpql.append(keyword).append("e.endDate <= :endDate");
+            }
+            jpql.append(groupBy);
+            appendOrderBy(jpql, sort);
+            return jpql.toString();
+        });
+    }
+
+    private boolean searchesFullText(FullTextIndexes.Column column, String term) {
+        return StringUtils.hasText(term) && fullTextIndexes.canSearch(column, term);
+    }
+
+    private void appendOrderBy(StringBuilder jpql, Sort sort) {
+        String separator = " ORDER BY ";
+        for (Sort.Order order : sort) {
+            if (!SORTABLE_FIELDS.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort events by '" + order.getProperty() + "'");
+            }
+            jpql.append(separator)
+                .append("e.").append(order.getProperty())
+                .append(order.isAscending() ? " ASC" : " DESC");
+            separator = ", ";
+        }
+    }
+
+    private <T> List<T> bindAndFetch(TypedQuery<T> query, EventFilter filter) {
+        if (StringUtils.hasText(filter.name())) {
+            query.setParameter("name", "%" + filter.name() + "%");
+        }
+        if (searchesFullText(FullTextIndexes.Column.EVENT_NAME, filter.name())) {
+            query.setParameter("namePhrase", FullTextSearch.toPhrase(filter.name()));
+        }
+        if (StringUtils.hasText(filter.location())) {
+            query.setParameter("location", "%" + filter.location() + "%");
+        }
+        if (searchesFullText(FullTextIndexes.Column.EVENT_LOCATION, filter.location())) {
+            query.setParameter("locationPhrase", FullTextSearch.toPhrase(filter.location()));
+        }
+        if (filter.startDate() != null) {
+            query.setParameter("startDate", filter.startDate());
+        }
+        if (filter.endDate() != null) {
+            query.setParameter("endDate", filter.endDate());
+        }
+        if (filter.limit() != null) {
+            query.setMaxResults(filter.limit());
+        }
+        // results are invalidated by Hibernate whenever Events or Participants are written
+        query.setHint(HibernateHints.HINT_CACHEABLE, true);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,20 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+// lets JPQL use the FULLTEXT indexes, e.g. match_against(e.name, :phrase) > 0; registered in
+// META-INF/services, Hibernate discovers it before the entity manager factory is built
+public class FullTextFunctions implements FunctionContributor {
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH_AGAINST,
+                "match(?1) against(?2 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
@@ -0,0 +1,93 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.EnumSet;
+import java.util.Set;
+
+// ddl-auto never creates FULLTEXT indexes, so they are checked (and created if allowed) once the schema is
+// updated at startup; a column without one is searched with the plain LIKE queries instead of MATCH ... AGAINST
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class FullTextIndexes {
+    private static final String INDEX_EXISTS = "SELECT COUNT(*) FROM information_schema.STATISTICS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ? AND INDEX_TYPE = 'FULLTEXT'";
+
+    public enum Column {
+        EVENT_NAME("Events", "name", "ft_events_name"),
+        EVENT_LOCATION("Events", "location", "ft_events_location"),
+        PARTICIPANT_NAME("Participants", "name", "ft_participants_name"),
+        PARTICIPANT_EMAIL("Participants", "email", "ft_participants_email"),
+        PARTICIPANT_PHONE("Participants", "phoneNumber", "ft_participants_phone");
+
+        private final String table;
+        private final String column;
+        private final String indexName;
+
+        Column(String table, String column, String indexName) {
+            this.table = table;
+            this.column = column;
+            this.indexName = indexName;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<Column> available = EnumSet.noneOf(Column.class);
+
+    public FullTextIndexes(
+            JdbcTemplate jdbcTemplate,
+            @Value("${search.fulltext.create-missing}") boolean createMissing
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (Column column : Column.values()) {
+            if (exists(column) || createMissing && create(column)) {
+                available.add(column);
+            } else {
+                log.warn("No FULLTEXT index on {}.{}, searching it with LIKE", column.table, column.column);
+            }
+        }
+    }
+
+    public boolean canSearch(Column column, String term) {
+        return available.contains(column) && FullTextSearch.isIndexable(term);
+    }
+
+    private boolean exists(Column column) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(INDEX_EXISTS, Integer.class, column.table, column.column);
+            return count != null && count > 0;
+        } catch (DataAccessException e) {
+            log.warn("Could not inspect indexes of {}: {}", column.table, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean create(Column column) {
+        log.info("Creating FULLTEXT index {} on {}.{}", column.indexName, column.table, column.column);
+        try {
+            // the session flag and the ALTER must run on the same connection
+            jdbcTemplate.execute((Statement statement) -> {
+                // ngram full-text indexes must not drop tokens containing stopwords (e.g. 'a')
+                statement.execute("SET SESSION innodb_ft_enable_stopword = OFF");
+                try {
+                    statement.execute("ALTER TABLE " + column.table + " ADD FULLTEXT INDEX " + column.indexName
+                            + " (" + column.column + ") WITH PARSER ngram");
+                } finally {
+                    statement.execute("SET SESSION innodb_ft_enable_stopword = DEFAULT");
+                }
+                return null;
+            });
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Could not create FULLTEXT index {}: {}", column.indexName, e.getMessage());
+            return false;
+        }
+    }
+}
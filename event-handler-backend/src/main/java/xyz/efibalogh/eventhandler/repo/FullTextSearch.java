@@ -0,0 +1,16 @@
+package xyz.efibalogh.eventhandler.repo;
+
+public final class FullTextSearch {
+    // must match the server's ngram_token_size, shorter terms cannot hit the index
+    public static final int MIN_TERM_LENGTH = 2;
+
+    private FullTextSearch() {}
+
+    public static boolean isIndexable(String term) {
+        return term != null && term.replace("\"", "").strip().length() >= MIN_TERM_LENGTH;
+    }
+
+    public static String toPhrase(String term) {
+        return "\"" + term.replace("\"", "").strip() + "\"";
+    }
+}
@@ -0,0 +1,52 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// ddl-auto creates the <table>_SEQ tables starting at 1, so on a database that already holds rows the
+// first pooled blocks would collide with existing ids; every sequence is raised past MAX(id) at startup
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequences {
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequences(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            if (descriptor.getGenerator() instanceof SequenceStyleGenerator generator
+                    && descriptor instanceof AbstractEntityPersister persister) {
+                seed(generator.getDatabaseStructure(), persister);
+            }
+        });
+    }
+
+    private void seed(DatabaseStructure structure, AbstractEntityPersister persister) {
+        if (structure.isPhysicalSequence()) {
+            log.warn("{} is a native sequence, not seeding it", structure.getPhysicalName().render());
+            return;
+        }
+        seed(structure.getPhysicalName().render(), persister.getTableName(), persister.getIdentifierColumnNames()[0]);
+    }
+
+    void seed(String sequenceTable, String table, String idColumn) {
+        String nextId = "SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table;
+
+        // GREATEST keeps this idempotent and safe when several instances start at once
+        int updated = jdbcTemplate.update("UPDATE " + sequenceTable
+                + " SET next_val = GREATEST(COALESCE(next_val, 0), (" + nextId + "))");
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO " + sequenceTable + " (next_val) " + nextId);
+        }
+        log.info("Id sequence {} is at {}", sequenceTable,
+                jdbcTemplate.queryForObject("SELECT MAX(next_val) FROM " + sequenceTable, Long.class));
+    }
+}
@@ -0,0 +1,20 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import xyz.efibalogh.eventhandler.model.ActiveUser;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface JpaActiveUserDao extends JpaRepository<ActiveUser, String> {
+    boolean existsByUsernameAndExpiresAtAfter(String username, Instant now);
+
+    @Modifying
+    @Query("DELETE FROM ActiveUser u WHERE u.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
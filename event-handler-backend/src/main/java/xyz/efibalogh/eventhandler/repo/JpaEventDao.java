@@ -1,39 +1,95 @@
 package xyz.efibalogh.eventhandler.repo;
 
+import xyz.efibalogh.eventhandler.dto.outgoing.EventOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.LocationCountOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.MonthCountOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantCountOutgoing;
 import xyz.efibalogh.eventhandler.exception.DataAccessException;
 import xyz.efibalogh.eventhandler.model.Event;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface JpaEventDao extends JpaRepository<Event, Long> {
+public interface JpaEventDao extends JpaRepository<Event, Long>, EventFilterDao {
+    // selects straight into the DTO, so list endpoints never put managed entities into the persistence context
+    String EVENT_DTO_SELECT = "SELECT new xyz.efibalogh.eventhandler.dto.outgoing.EventOutgoing("
+            + "e.id, e.name, e.location, e.startDate, e.endDate, e.version) FROM Event e ";
+
+    // the (startDate, endDate) index serves both the range and the ORDER BY, InnoDB appends the id to it
+    String UPCOMING_QUERY = "SELECT * FROM Events FORCE INDEX (idx_events_start_end) "
+            + "WHERE startDate >= :from AND startDate < :to "
+            + "ORDER BY startDate, endDate, id LIMIT :limit";
+
+    @Transactional(readOnly = true)
+    @Query(EVENT_DTO_SELECT + "WHERE e.id > :after ORDER BY e.id")
+    List<EventOutgoing> findDtoPage(@Param("after") Long after, Limit limit) throws DataAccessException;
+
     @Query("SELECT e FROM Event e WHERE e.name LIKE %:name%")
     Collection<Event> filterByName(@Param("name") String name) throws DataAccessException;
 
     @Query("SELECT e FROM Event e WHERE e.location LIKE %:location%")
     Collection<Event> filterByLocation(@Param("location") String location) throws DataAccessException;
 
+    @Query(value = "SELECT * FROM Events "
+                 + "WHERE MATCH(name) AGAINST(:phrase IN BOOLEAN MODE) AND name LIKE CONCAT('%', :name, '%')",
+           nativeQuery = true)
+    Collection<Event> searchByName(
+            @Param("phrase") String phrase,
+            @Param("name") String name
+    ) throws DataAccessException;
+
+    @Query(value = "SELECT * FROM Events "
+                 + "WHERE MATCH(location) AGAINST(:phrase IN BOOLEAN MODE) "
+                 + "AND location LIKE CONCAT('%', :location, '%')",
+           nativeQuery = true)
+    Collection<Event> searchByLocation(
+            @Param("phrase") String phrase,
+            @Param("location") String location
+    ) throws DataAccessException;
+
+    @Query(value = UPCOMING_QUERY, nativeQuery = true)
+    List<Event> findUpcoming(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("limit") int limit
+    ) throws DataAccessException;
+
     @Query("SELECT e FROM Event e WHERE e.startDate >= :startDate")
     Collection<Event> filterByStartDate(@Param("startDate") LocalDate startDate) throws DataAccessException;
 
     @Query("SELECT e FROM Event e WHERE e.endDate <= :endDate")
     Collection<Event> filterByEndDate(@Param("endDate") LocalDate endDate) throws DataAccessException;
 
-    @Query("SELECT e FROM Event e WHERE "
-         + "(:name IS NULL OR e.name LIKE %:name%) AND "
-         + "(:location IS NULL OR e.location LIKE %:location%) AND "
-         + "(:startDate IS NULL OR e.startDate >= :startDate) AND "
-         + "(:endDate IS NULL OR e.endDate <= :endDate)")
-    Collection<Event> filterCombined(
-            @Param("name") String name,
-            @Param("location") String location,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    ) throws DataAccessException;
+    // LEFT JOIN so events without participants are listed with 0
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new xyz.efibalogh.eventhandler.dto.outgoing.ParticipantCountOutgoing(e.id, e.name, COUNT(p)) "
+         + "FROM Event e LEFT JOIN e.participants p GROUP BY e.id, e.name ORDER BY e.id")
+    List<ParticipantCountOutgoing> countParticipantsPerEvent() throws DataAccessException;
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new xyz.efibalogh.eventhandler.dto.outgoing.MonthCountOutgoing("
+         + "year(e.startDate), month(e.startDate), COUNT(e)) FROM Event e "
+         + "GROUP BY year(e.startDate), month(e.startDate) "
+         + "ORDER BY year(e.startDate), month(e.startDate)")
+    List<MonthCountOutgoing> countPerMonth() throws DataAccessException;
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new xyz.efibalogh.eventhandler.dto.outgoing.LocationCountOutgoing(e.location, COUNT(e)) "
+         + "FROM Event e GROUP BY e.location ORDER BY COUNT(e) DESC, e.location")
+    List<LocationCountOutgoing> countPerLocation() throws DataAccessException;
 }
\ No newline at end of file
@@ -1,18 +1,38 @@
 package xyz.efibalogh.eventhandler.repo;
 
+import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing;
 import xyz.efibalogh.eventhandler.exception.DataAccessException;
 import xyz.efibalogh.eventhandler.model.Event;
 import xyz.efibalogh.eventhandler.model.Participant;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface JpaParticipantDao extends JpaRepository<Participant, Long> {
+    String PARTICIPANT_DTO_SELECT = "SELECT new xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing("
+            + "p.id, p.name, p.email, p.phoneNumber, p.event.id, p.version) FROM Participant p ";
+
+    @Transactional(readOnly = true)
+    @Query(PARTICIPANT_DTO_SELECT + "WHERE p.event.id IN :eventIds ORDER BY p.id")
+    List<ParticipantOutgoing> findDtosByEventIds(@Param("eventIds") Collection<Long> eventIds)
+            throws DataAccessException;
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(PARTICIPANT_DTO_SELECT + "WHERE p.event.id = :eventId ORDER BY p.id")
+    List<ParticipantOutgoing> findDtosByEventId(@Param("eventId") Long eventId) throws DataAccessException;
+
     @Query("SELECT p FROM Participant p WHERE p.name LIKE %:name%")
     Collection<Participant> filterByName(@Param("name") String name) throws DataAccessException;
 
@@ -22,6 +42,37 @@ public interface JpaParticipantDao extends JpaRepository<Participant, Long> {
     @Query("SELECT p FROM Participant p WHERE p.phoneNumber LIKE %:phoneNumber%")
     Collection<Participant> filterByPhoneNumber(@Param("phoneNumber") String phoneNumber) throws DataAccessException;
 
+    @Query(value = "SELECT * FROM Participants "
+                 + "WHERE MATCH(name) AGAINST(:phrase IN BOOLEAN MODE) AND name LIKE CONCAT('%', :name, '%')",
+           nativeQuery = true)
+    Collection<Participant> searchByName(
+            @Param("phrase") String phrase,
+            @Param("name") String name
+    ) throws DataAccessException;
+
+    @Query(value = "SELECT * FROM Participants "
+                 + "WHERE MATCH(email) AGAINST(:phrase IN BOOLEAN MODE) AND email LIKE CONCAT('%', :email, '%')",
+           nativeQuery = true)
+    Collection<Participant> searchByEmail(
+            @Param("phrase") String phrase,
+            @Param("email") String email
+    ) throws DataAccessException;
+
+    @Query(value = "SELECT * FROM Participants "
+                 + "WHERE MATCH(phoneNumber) AGAINST(:phrase IN BOOLEAN MODE) "
+                 + "AND phoneNumber LIKE CONCAT('%', :phoneNumber, '%')",
+           nativeQuery = true)
+    Collection<Participant> searchByPhoneNumber(
+            @Param("phrase") String phrase,
+            @Param("phoneNumber") String phoneNumber
+    ) throws DataAccessException;
+
+    @Query("SELECT p.email FROM Participant p WHERE p.event.id = :eventId AND p.email IS NOT NULL")
+    Set<String> findEmailsByEventId(@Param("eventId") Long eventId) throws DataAccessException;
+
+    @Query("SELECT p.phoneNumber FROM Participant p WHERE p.event.id = :eventId AND p.phoneNumber IS NOT NULL")
+    Set<String> findPhoneNumbersByEventId(@Param("eventId") Long eventId) throws DataAccessException;
+
     @Query("SELECT p FROM Participant p WHERE p.event = :event")
     Collection<Participant> filterByEvent(@Param("event") Event event) throws DataAccessException;
 }
@@ -1,20 +1,30 @@
 package xyz.efibalogh.eventhandler.service;
 
+import xyz.efibalogh.eventhandler.dto.outgoing.EventOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.EventStatsOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.EventSummaryOutgoing;
 import xyz.efibalogh.eventhandler.exception.EntityNotFoundException;
 import xyz.efibalogh.eventhandler.model.Event;
+import xyz.efibalogh.eventhandler.repo.EventFilter;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EventService {
     Long addEvent(Event event);
 
     Optional<Event> getById(Long id) throws EntityNotFoundException;
 
-    Collection<Event> getAll();
+    Optional<Event> getByIdWithParticipants(Long id);
 
-    void setById(Long id, Event event) throws EntityNotFoundException;
+    List<EventOutgoing> getPageDtos(Long after, int limit);
+
+    List<Event> getUpcoming(LocalDate from, LocalDate to, int limit);
+
+    void update(Long id, Long expectedVersion, Consumer<Event> changes) throws EntityNotFoundException;
 
     void deleteById(Long id) throws EntityNotFoundException;
 
@@ -27,4 +37,10 @@ public interface EventService {
     Collection<Event> filterByEndDate(LocalDate endDate);
 
     Collection<Event> filterCombined(String name, String location, LocalDate startDate, LocalDate endDate);
+
+    Collection<Event> filterCombined(EventFilter filter);
+
+    Collection<EventSummaryOutgoing> summarizeCombined(EventFilter filter);
+
+    EventStatsOutgoing getStats();
 }
@@ -0,0 +1,55 @@
+package xyz.efibalogh.eventhandler.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+@ConditionalOnProperty(name = "token-store.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenStore implements TokenStore {
+    private record Revocation(Instant expiresAt, Instant revokedAt) {}
+
+    private final Map<String, Revocation> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Instant> activeUsers = new ConcurrentHashMap<>();
+
+    @Override
+    public void revokeToken(String tokenHash, Instant expiresAt) {
+        revokedTokens.put(tokenHash, new Revocation(expiresAt, Instant.now()));
+    }
+
+    @Override
+    public Map<String, Instant> findRevokedSince(Instant since) {
+        Instant now = Instant.now();
+        return revokedTokens.entrySet().stream()
+                .filter(entry -> entry.getValue().revokedAt().isAfter(since))
+                .filter(entry -> entry.getValue().expiresAt().isAfter(now))
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().expiresAt()));
+    }
+
+    @Override
+    public void addActiveUser(String username, Instant expiresAt) {
+        activeUsers.put(username, expiresAt);
+    }
+
+    @Override
+    public boolean isUserActive(String username) {
+        Instant expiresAt = activeUsers.get(username);
+        return expiresAt != null && expiresAt.isAfter(Instant.now());
+    }
+
+    @Override
+    public void removeActiveUser(String username) {
+        activeUsers.remove(username);
+    }
+
+    @Override
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(revocation -> !revocation.expiresAt().isAfter(now));
+        activeUsers.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+}
@@ -1,31 +1,63 @@
 package xyz.efibalogh.eventhandler.service;
 
+import xyz.efibalogh.eventhandler.changes.EntityChange;
+import xyz.efibalogh.eventhandler.dto.outgoing.EventOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.EventStatsOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.EventSummaryOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing;
 import xyz.efibalogh.eventhandler.exception.DataAccessException;
 import xyz.efibalogh.eventhandler.exception.EntityNotFoundException;
 import xyz.efibalogh.eventhandler.exception.EntityServiceException;
 import xyz.efibalogh.eventhandler.model.Event;
+import xyz.efibalogh.eventhandler.repo.EventFilter;
+import xyz.efibalogh.eventhandler.repo.FullTextIndexes;
+import xyz.efibalogh.eventhandler.repo.FullTextSearch;
 import xyz.efibalogh.eventhandler.repo.JpaEventDao;
+import xyz.efibalogh.eventhandler.repo.JpaParticipantDao;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.orm.jpa.JpaSystemException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class JpaEventService implements EventService {
     @Autowired
     private JpaEventDao eventDao;
 
+    @Autowired
+    private JpaParticipantDao participantDao;
+
+    @Autowired
+    private FullTextIndexes fullTextIndexes;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public Long addEvent(Event event) {
         try {
-            return eventDao.save(event).getId();
+            Long id = eventDao.save(event).getId();
+            eventPublisher.publishEvent(EntityChange.event(EntityChange.Type.CREATED, id));
+            return id;
         } catch (DataIntegrityViolationException | JpaSystemException e) {
             log.error("Error adding event: {}", e.getMessage());
             throw new EntityServiceException("Error adding event: " + e.getMessage(), e);
@@ -43,27 +75,70 @@ public class JpaEventService implements EventService {
     }
 
     @Override
-    public Collection<Event> getAll() {
+    @Transactional(readOnly = true)
+    public Optional<Event> getByIdWithParticipants(Long id) {
         try {
-            return eventDao.findAll();
+            Optional<Event> event = eventDao.findById(id);
+            event.ifPresent(e -> Hibernate.initialize(e.getParticipants()));
+            return event;
         } catch (JpaSystemException e) {
-            log.error("Error retrieving all events: {}", e.getMessage());
-            throw new EntityServiceException("Error retrieving all events!", e);
+            log.error("Error retrieving event with id {}: {}", id, e.getMessage());
+            throw new EntityServiceException("Error retrieving event!", e);
         }
     }
 
     @Override
-    public void setById(Long id, Event event) throws EntityNotFoundException {
+    @Transactional(readOnly = true)
+    public List<EventOutgoing> getPageDtos(Long after, int limit) {
         try {
-            Event existingEvent = eventDao.findById(id)
-                    .orElseThrow(() -> new EntityNotFoundException("Event with id=" + id + " not found!"));
-            existingEvent.setName(event.getName());
-            existingEvent.setLocation(event.getLocation());
-            existingEvent.setStartDate(event.getStartDate());
-            existingEvent.setEndDate(event.getEndDate());
-            existingEvent.setParticipants(event.getParticipants());
+            List<EventOutgoing> events = eventDao.findDtoPage(after == null ? 0L : after, Limit.of(limit));
+            if (!events.isEmpty()) {
+                List<Long> ids = events.stream().map(EventOutgoing::getId).toList();
+                attachParticipants(events, participantDao.findDtosByEventIds(ids));
+            }
+            return events;
+        } catch (DataAccessException e) {
+            log.error("Error retrieving events after id {}: {}", after, e.getMessage());
+            throw new EntityServiceException("Error retrieving events!", e);
+        }
+    }
+
+    private static void attachParticipants(List<EventOutgoing> events, List<ParticipantOutgoing> participants) {
+        Map<Long, List<ParticipantOutgoing>> byEvent = participants.stream()
+                .collect(Collectors.groupingBy(ParticipantOutgoing::getEventId));
+        for (EventOutgoing event : events) {
+            event.setParticipants(byEvent.getOrDefault(event.getId(), new ArrayList<>()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Event> getUpcoming(LocalDate from, LocalDate to, int limit) {
+        try {
+            List<Event> events = eventDao.findUpcoming(from, to, limit);
+            // batched by default_batch_fetch_size, the page is rendered after the session is closed
+            events.forEach(event -> Hibernate.initialize(event.getParticipants()));
+            return events;
+        } catch (DataAccessException e) {
+            log.error("Error retrieving upcoming events between {} and {}: {}", from, to, e.getMessage());
+            throw new EntityServiceException("Error retrieving upcoming events!", e);
+        }
+    }
 
-            eventDao.save(existingEvent);
+    @Override
+    @Transactional
+    public void update(Long id, Long expectedVersion, Consumer<Event> changes) throws EntityNotFoundException {
+        try {
+            // changes the managed entity in place, so participants are never loaded or cascaded; the flush
+            // writes the dirty columns (@DynamicUpdate) with the version in the WHERE clause
+            Event event = eventDao.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Event with id=" + id + " not found!"));
+            if (expectedVersion != null && !expectedVersion.equals(event.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Event.class, id);
+            }
+            changes.accept(event);
+            eventDao.flush();
+            eventPublisher.publishEvent(EntityChange.event(EntityChange.Type.UPDATED, id));
         } catch (JpaSystemException e) {
             log.error("Error updating event with id {}: {}", id, e.getMessage());
             throw new EntityServiceException("Error updating event!", e);
@@ -77,6 +152,7 @@ public class JpaEventService implements EventService {
                 throw new EntityNotFoundException("Event with id=" + id + " not found!");
             }
             eventDao.deleteById(id);
+            eventPublisher.publishEvent(EntityChange.event(EntityChange.Type.DELETED, id));
         } catch (JpaSystemException e) {
             log.error("Error deleting event with id {}: {}", id, e.getMessage());
             throw new EntityServiceException("Error deleting event!", e);
@@ -86,7 +162,9 @@ public class JpaEventService implements EventService {
     @Override
     public Collection<Event> filterByName(String name) {
         try {
-            return eventDao.filterByName(name);
+            return fullTextIndexes.canSearch(FullTextIndexes.Column.EVENT_NAME, name)
+                    ? eventDao.searchByName(FullTextSearch.toPhrase(name), name)
+                    : eventDao.filterByName(name);
         } catch (DataAccessException e) {
             log.error("Error retrieving events by name '{}': {}", name, e.getMessage());
             throw new EntityServiceException("Error retrieving events by name!", e);
@@ -96,7 +174,9 @@ public class JpaEventService implements EventService {
     @Override
     public Collection<Event> filterByLocation(String location) {
         try {
-            return eventDao.filterByLocation(location);
+            return fullTextIndexes.canSearch(FullTextIndexes.Column.EVENT_LOCATION, location)
+                    ? eventDao.searchByLocation(FullTextSearch.toPhrase(location), location)
+                    : eventDao.filterByLocation(location);
         } catch (DataAccessException e) {
             log.error("Error retrieving events by location '{}': {}", location, e.getMessage());
             throw new EntityServiceException("Error retrieving events by location!", e);
@@ -124,12 +204,50 @@ public class JpaEventService implements EventService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<Event> filterCombined(String name, String location, LocalDate startDate, LocalDate endDate) {
+        return filterCombined(new EventFilter(name, location, startDate, endDate));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Event> filterCombined(EventFilter filter) {
         try {
-            return eventDao.filterCombined(name, location, startDate, endDate);
+            List<Event> events = eventDao.filter(filter);
+            // a limited query and a query cache hit leave participants lazy, the result is rendered after the
+            // session is closed
+            events.forEach(event -> Hibernate.initialize(event.getParticipants()));
+            return events;
         } catch (DataAccessException e) {
             log.error("Error filtering events: {}", e.getMessage());
             throw new EntityServiceException("Error filtering events!", e);
         }
     }
+
+    @Override
+    public Collection<EventSummaryOutgoing> summarizeCombined(EventFilter filter) {
+        try {
+            return eventDao.summarize(filter);
+        } catch (DataAccessException e) {
+            log.error("Error summarizing events: {}", e.getMessage());
+            throw new EntityServiceException("Error summarizing events!", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EventStatsOutgoing getStats() {
+        try {
+            EventStatsOutgoing stats = new EventStatsOutgoing();
+            stats.setTotalEvents(eventDao.count());
+            stats.setTotalParticipants(participantDao.count());
+            stats.setParticipantsPerEvent(eventDao.countParticipantsPerEvent());
+            stats.setEventsPerMonth(eventDao.countPerMonth());
+            stats.setEventsPerLocation(eventDao.countPerLocation());
+            return stats;
+        } catch (DataAccessException | JpaSystemException e) {
+            log.error("Error computing event statistics: {}", e.getMessage());
+            throw new EntityServiceException("Error computing event statistics!", e);
+        }
+    }
 }
@@ -1,31 +1,49 @@
 package xyz.efibalogh.eventhandler.service;
 
+import xyz.efibalogh.eventhandler.changes.EntityChange;
+import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing;
 import xyz.efibalogh.eventhandler.exception.DataAccessException;
 import xyz.efibalogh.eventhandler.exception.EntityNotFoundException;
 import xyz.efibalogh.eventhandler.exception.EntityServiceException;
 import xyz.efibalogh.eventhandler.model.Event;
 import xyz.efibalogh.eventhandler.model.Participant;
+import xyz.efibalogh.eventhandler.repo.FullTextIndexes;
+import xyz.efibalogh.eventhandler.repo.FullTextSearch;
 import xyz.efibalogh.eventhandler.repo.JpaParticipantDao;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.orm.jpa.JpaSystemException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.Optional;
 
 @Slf4j
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class JpaParticipantService implements ParticipantService {
     @Autowired
     private JpaParticipantDao participantDao;
 
+    @Autowired
+    private FullTextIndexes fullTextIndexes;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public Long addParticipant(Participant participant) {
         try {
-            return participantDao.save(participant).getId();
+            Participant saved = participantDao.save(participant);
+            eventPublisher.publishEvent(
+                    EntityChange.participant(EntityChange.Type.CREATED, saved.getId(), eventIdOf(saved))
+            );
+            return saved.getId();
         } catch (DataIntegrityViolationException | JpaSystemException e) {
             log.error("Error adding participant: {}", e.getMessage());
             throw new EntityServiceException("Error adding participant: " + e.getMessage(), e);
@@ -52,6 +70,17 @@ public class JpaParticipantService implements ParticipantService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<ParticipantOutgoing> getDtosByEvent(Long eventId) {
+        try {
+            return participantDao.findDtosByEventId(eventId);
+        } catch (DataAccessException e) {
+            log.error("Error retrieving participants of event {}: {}", eventId, e.getMessage());
+            throw new EntityServiceException("Error retrieving participants!", e);
+        }
+    }
+
     @Override
     public void setById(Long id, Participant participant) throws EntityNotFoundException {
         try {
@@ -63,6 +92,9 @@ public class JpaParticipantService implements ParticipantService {
             existingParticipant.setEvent(participant.getEvent());
 
             participantDao.save(existingParticipant);
+            eventPublisher.publishEvent(
+                    EntityChange.participant(EntityChange.Type.UPDATED, id, eventIdOf(existingParticipant))
+            );
         } catch (JpaSystemException e) {
             log.error("Error updating participant with id {}: {}", id, e.getMessage());
             throw new EntityNotFoundException("Participant with id=" + id + " not found!", e);
@@ -72,20 +104,29 @@ public class JpaParticipantService implements ParticipantService {
     @Override
     public void deleteById(Long id) throws EntityNotFoundException {
         try {
-            if (!participantDao.existsById(id)) {
-                throw new EntityNotFoundException("Participant with id=" + id + " not found!");
-            }
-            participantDao.deleteById(id);
+            // loaded rather than just checked, the change notification needs the participant's event
+            Participant participant = participantDao.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Participant with id=" + id + " not found!"));
+            participantDao.delete(participant);
+            eventPublisher.publishEvent(
+                    EntityChange.participant(EntityChange.Type.DELETED, id, eventIdOf(participant))
+            );
         } catch (JpaSystemException e) {
             log.error("Error deleting participant with id {}: {}", id, e.getMessage());
             throw new EntityNotFoundException("Participant with id=" + id + " not found!", e);
         }
     }
 
+    private static Long eventIdOf(Participant participant) {
+        return participant.getEvent() == null ? null : participant.getEvent().getId();
+    }
+
     @Override
     public Collection<Participant> filterByName(String name) {
         try {
-            return participantDao.filterByName(name);
+            return fullTextIndexes.canSearch(FullTextIndexes.Column.PARTICIPANT_NAME, name)
+                    ? participantDao.searchByName(FullTextSearch.toPhrase(name), name)
+                    : participantDao.filterByName(name);
         } catch (DataAccessException e) {
             log.error("Error filtering participants by name {}: {}", name, e.getMessage());
             throw new EntityServiceException("Error filtering participants by name!", e);
@@ -95,7 +136,9 @@ public class JpaParticipantService implements ParticipantService {
     @Override
     public Collection<Participant> filterByEmail(String email) {
         try {
-            return participantDao.filterByEmail(email);
+            return fullTextIndexes.canSearch(FullTextIndexes.Column.PARTICIPANT_EMAIL, email)
+                    ? participantDao.searchByEmail(FullTextSearch.toPhrase(email), email)
+                    : participantDao.filterByEmail(email);
         } catch (DataAccessException e) {
             log.error("Error filtering participants by email {}: {}", email, e.getMessage());
             throw new EntityServiceException("Error filtering participants by email!", e);
@@ -105,7 +148,9 @@ public class JpaParticipantService implements ParticipantService {
     @Override
     public Collection<Participant> filterByPhoneNumber(String phoneNumber) {
         try {
-            return participantDao.filterByPhoneNumber(phoneNumber);
+            return fullTextIndexes.canSearch(FullTextIndexes.Column.PARTICIPANT_PHONE, phoneNumber)
+                    ? participantDao.searchByPhoneNumber(FullTextSearch.toPhrase(phoneNumber), phoneNumber)
+                    : participantDao.filterByPhoneNumber(phoneNumber);
         } catch (DataAccessException e) {
             log.error("Error filtering participants by phone number {}: {}", phoneNumber, e.getMessage());
             throw new EntityServiceException("Error filtering participants by phone number!", e);
@@ -0,0 +1,69 @@
+package xyz.efibalogh.eventhandler.service;
+
+import xyz.efibalogh.eventhandler.exception.EntityServiceException;
+import xyz.efibalogh.eventhandler.model.ActiveUser;
+import xyz.efibalogh.eventhandler.model.RevokedToken;
+import xyz.efibalogh.eventhandler.repo.JpaActiveUserDao;
+import xyz.efibalogh.eventhandler.repo.JpaRevokedTokenDao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.orm.jpa.JpaSystemException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "token-store.type", havingValue = "jpa")
+public class JpaTokenStore implements TokenStore {
+    @Autowired
+    private JpaRevokedTokenDao revokedTokenDao;
+
+    @Autowired
+    private JpaActiveUserDao activeUserDao;
+
+    @Override
+    public void revokeToken(String tokenHash, Instant expiresAt) {
+        try {
+            revokedTokenDao.save(new RevokedToken(tokenHash, expiresAt, Instant.now()));
+        } catch (JpaSystemException e) {
+            log.error("Error revoking token: {}", e.getMessage());
+            throw new EntityServiceException("Error revoking token!", e);
+        }
+    }
+
+    @Override
+    public Map<String, Instant> findRevokedSince(Instant since) {
+        return revokedTokenDao.findByRevokedAtAfterAndExpiresAtAfter(since, Instant.now()).stream()
+                .collect(Collectors.toMap(RevokedToken::getTokenHash, RevokedToken::getExpiresAt));
+    }
+
+    @Override
+    public void addActiveUser(String username, Instant expiresAt) {
+        activeUserDao.save(new ActiveUser(username, expiresAt));
+    }
+
+    @Override
+    public boolean isUserActive(String username) {
+        return activeUserDao.existsByUsernameAndExpiresAtAfter(username, Instant.now());
+    }
+
+    @Override
+    public void removeActiveUser(String username) {
+        activeUserDao.deleteById(username);
+    }
+
+    @Override
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int revokedTokens = revokedTokenDao.deleteExpired(now);
+        int activeUsers = activeUserDao.deleteExpired(now);
+        log.debug("Purged {} expired revoked tokens and {} expired active users", revokedTokens, activeUsers);
+    }
+}
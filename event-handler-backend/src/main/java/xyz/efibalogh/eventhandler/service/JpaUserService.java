@@ -1,13 +1,20 @@
 package xyz.efibalogh.eventhandler.service;
 
+import xyz.efibalogh.eventhandler.config.CacheConfig;
+import xyz.efibalogh.eventhandler.logging.LogMarkers;
 import xyz.efibalogh.eventhandler.model.User;
 import xyz.efibalogh.eventhandler.repo.JpaUserDao;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,17 +23,34 @@ import java.util.Collection;
 
 @Slf4j
 @Service
-public class JpaUserService implements UserDetailsService {
+@Timed(value = "service.calls", histogram = true)
+public class JpaUserService implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     private JpaUserDao jpaUserDao;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
+    @Cacheable(cacheNames = CacheConfig.USER_DETAILS_CACHE, key = "#username")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        log.info("Loading user by username: {}", username);
+        log.debug(LogMarkers.HOT_PATH, "Loading user by username: {}", username);
         return jpaUserDao.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
 
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.info("Rehashing password of user {}", userDetails.getUsername());
+        User user = jpaUserDao.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        "User not found with username: " + userDetails.getUsername()
+                ));
+        user.setPassword(newPassword);
+        save(user);
+        return user;
+    }
+
     public Collection<User> getAll() {
         return jpaUserDao.findAll();
     }
@@ -37,11 +61,16 @@ public class JpaUserService implements UserDetailsService {
     }
 
     public Long save(User user) {
-        return jpaUserDao.save(user).getId();
+        Long id = jpaUserDao.save(user).getId();
+        evictUserDetails(user.getUsername());
+        return id;
     }
 
     public void deleteById(Long id) {
-        jpaUserDao.deleteById(id);
+        jpaUserDao.findById(id).ifPresent(user -> {
+            jpaUserDao.delete(user);
+            evictUserDetails(user.getUsername());
+        });
     }
 
     public boolean existsByUsername(String username) {
@@ -58,10 +87,7 @@ public class JpaUserService implements UserDetailsService {
             return false;
         }
         
-        String currentUsername = authentication.getName();
-        return jpaUserDao.findByUsername(currentUsername)
-                .map(user -> user.getId().equals(id))
-                .orElse(false);
+        return authentication.getPrincipal() instanceof User user && user.getId().equals(id);
     }
 
     public void updateTheme(Long id, String theme) {
@@ -75,4 +101,11 @@ public class JpaUserService implements UserDetailsService {
         user.setLanguage(language);
         save(user);
     }
+
+    private void evictUserDetails(String username) {
+        Cache cache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        if (cache != null && username != null) {
+            cache.evict(username);
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package xyz.efibalogh.eventhandler.service;
+
+import xyz.efibalogh.eventhandler.changes.EntityChange;
+import xyz.efibalogh.eventhandler.dto.incoming.ParticipantIncoming;
+import xyz.efibalogh.eventhandler.dto.outgoing.ImportReportOutgoing;
+import xyz.efibalogh.eventhandler.exception.DataAccessException;
+import xyz.efibalogh.eventhandler.exception.EntityServiceException;
+import xyz.efibalogh.eventhandler.exception.ImportFormatException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+@Timed(value = "service.calls", histogram = true)
+public class ParticipantImportService {
+    private static final String DUPLICATE_EMAIL = "This email is already registered for this event!";
+    private static final String DUPLICATE_PHONE = "This phone number is already registered for this event!";
+
+    @Autowired
+    private ParticipantImportWriter writer;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${participants.import.batch-size}")
+    private int batchSize;
+
+    @Value("${participants.import.max-listed-failures}")
+    private int maxListedFailures;
+
+    public ImportReportOutgoing importJson(Long eventId, InputStream inputStream) throws ImportFormatException {
+        ImportBatch batch = new ImportBatch(eventId);
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ImportFormatException("Expected a JSON array of participants");
+            }
+
+            long row = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                row++;
+                // reading one element as a tree keeps the parser aligned even if the row itself is invalid
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    batch.add(row, objectMapper.treeToValue(node, ParticipantIncoming.class));
+                } catch (JsonProcessingException e) {
+                    batch.report.addFailure(row, "Malformed participant: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new ImportFormatException("Malformed JSON import: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new ImportFormatException("Error reading import: " + e.getMessage(), e);
+        }
+        return batch.finish();
+    }
+
+    public ImportReportOutgoing importCsv(Long eventId, InputStream inputStream) throws ImportFormatException {
+        ImportBatch batch = new ImportBatch(eventId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new ImportFormatException("CSV import is empty");
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> headerFields = parseCsvLine(header.replace("\uFEFF", ""));
+            for (int i = 0; i < headerFields.size(); i++) {
+                columns.put(headerFields.get(i).strip().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("name")) {
+                throw new ImportFormatException("CSV header must contain a 'name' column");
+            }
+
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                List<String> fields = parseCsvLine(line);
+                ParticipantIncoming participantIncoming = new ParticipantIncoming();
+                participantIncoming.setName(field(fields, columns.get("name")));
+                participantIncoming.setEmail(field(fields, columns.get("email")));
+                participantIncoming.setPhoneNumber(field(fields, columns.get("phonenumber")));
+                batch.add(row, participantIncoming);
+            }
+        } catch (IOException e) {
+            throw new ImportFormatException("Error reading import: " + e.getMessage(), e);
+        }
+        return batch.finish();
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private final class ImportBatch {
+        private final Long eventId;
+        private final ImportReportOutgoing report = new ImportReportOutgoing(maxListedFailures);
+        private final Set<String> emails;
+        private final Set<String> phoneNumbers;
+        private final List<Long> rows = new ArrayList<>(batchSize);
+        private final List<ParticipantIncoming> participants = new ArrayList<>(batchSize);
+
+        ImportBatch(Long eventId) {
+            this.eventId = eventId;
+            try {
+                this.emails = writer.findEmails(eventId);
+                this.phoneNumbers = writer.findPhoneNumbers(eventId);
+            } catch (DataAccessException e) {
+                log.error("Error loading participants of event {}: {}", eventId, e.getMessage());
+                throw new EntityServiceException("Error importing participants!", e);
+            }
+        }
+
+        void add(long row, ParticipantIncoming participantIncoming) {
+            Set<ConstraintViolation<ParticipantIncoming>> violations = validator.validate(participantIncoming);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<ParticipantIncoming> violation = violations.iterator().next();
+                report.addFailure(row, String.format(
+                        "Field '%s': %s",
+                        violation.getPropertyPath(),
+                        violation.getMessage()
+                ));
+                return;
+            }
+            // mirror uk_email_event / uk_phone_event so duplicates never reach the database
+            if (participantIncoming.getEmail() != null && emails.contains(participantIncoming.getEmail())) {
+                report.addFailure(row, DUPLICATE_EMAIL);
+                return;
+            }
+            if (participantIncoming.getPhoneNumber() != null
+                    && phoneNumbers.contains(participantIncoming.getPhoneNumber())) {
+                report.addFailure(row, DUPLICATE_PHONE);
+                return;
+            }
+            if (participantIncoming.getEmail() != null) {
+                emails.add(participantIncoming.getEmail());
+            }
+            if (participantIncoming.getPhoneNumber() != null) {
+                phoneNumbers.add(participantIncoming.getPhoneNumber());
+            }
+
+            rows.add(row);
+            participants.add(participantIncoming);
+            if (participants.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        ImportReportOutgoing finish() {
+            flush();
+            log.info("Imported {} participants into event {}, {} rows failed",
+                    report.getImported(), eventId, report.getFailed());
+            if (report.getImported() > 0) {
+                // one notification for the whole import, subscribers reload the event's participants
+                eventPublisher.publishEvent(EntityChange.participant(EntityChange.Type.IMPORTED, null, eventId));
+            }
+            return report;
+        }
+
+        private void flush() {
+            if (participants.isEmpty()) {
+                return;
+            }
+            try {
+                writer.save(eventId, participants);
+                report.setImported(report.getImported() + participants.size());
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent writer won a race on a unique key, retry row by row to isolate it
+                log.warn("Batch insert into event {} failed, retrying row by row: {}", eventId, e.getMessage());
+                for (int i = 0; i < participants.size(); i++) {
+                    insertSingle(rows.get(i), participants.get(i));
+                }
+            }
+            rows.clear();
+            participants.clear();
+        }
+
+        private void insertSingle(long row, ParticipantIncoming participant) {
+            try {
+                writer.save(eventId, List.of(participant));
+                report.setImported(report.getImported() + 1);
+            } catch (DataIntegrityViolationException e) {
+                String message = e.getMessage() == null ? "" : e.getMessage();
+                if (message.contains("uk_email_event")) {
+                    report.addFailure(row, DUPLICATE_EMAIL);
+                } else if (message.contains("uk_phone_event")) {
+                    report.addFailure(row, DUPLICATE_PHONE);
+                } else {
+                    report.addFailure(row, "Could not save participant");
+                }
+            }
+        }
+    }
+}
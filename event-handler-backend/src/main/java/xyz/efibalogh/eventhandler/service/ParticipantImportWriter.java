@@ -0,0 +1,59 @@
+package xyz.efibalogh.eventhandler.service;
+
+import xyz.efibalogh.eventhandler.dto.incoming.ParticipantIncoming;
+import xyz.efibalogh.eventhandler.exception.DataAccessException;
+import xyz.efibalogh.eventhandler.mapper.ParticipantMapper;
+import xyz.efibalogh.eventhandler.model.Event;
+import xyz.efibalogh.eventhandler.model.Participant;
+import xyz.efibalogh.eventhandler.repo.JpaParticipantDao;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// the database side of ParticipantImportService; a bean of its own so ServiceConcurrencyLimiter takes a permit
+// per batch instead of holding one while the upload is read from the client
+@Service
+public class ParticipantImportWriter {
+    @Autowired
+    private JpaParticipantDao participantDao;
+
+    @Autowired
+    private ParticipantMapper participantMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public Set<String> findEmails(Long eventId) throws DataAccessException {
+        return participantDao.findEmailsByEventId(eventId);
+    }
+
+    public Set<String> findPhoneNumbers(Long eventId) throws DataAccessException {
+        return participantDao.findPhoneNumbersByEventId(eventId);
+    }
+
+    // every batch gets a persistence context of its own, closed with its transaction, so imported rows are not
+    // kept in memory for the rest of the upload
+    public void save(Long eventId, List<ParticipantIncoming> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = entityManager.getReference(Event.class, eventId);
+            List<Participant> entities = new ArrayList<>(batch.size());
+            for (ParticipantIncoming participantIncoming : batch) {
+                Participant participant = participantMapper.getParticipantFromDto(participantIncoming);
+                participant.setEvent(event);
+                entities.add(participant);
+            }
+            // pooled ids let hibernate.jdbc.batch_size group these into batched inserts
+            participantDao.saveAllAndFlush(entities);
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package xyz.efibalogh.eventhandler.service;
 
+import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing;
 import xyz.efibalogh.eventhandler.exception.EntityNotFoundException;
 import xyz.efibalogh.eventhandler.model.Event;
 import xyz.efibalogh.eventhandler.model.Participant;
@@ -14,6 +15,8 @@ public interface ParticipantService {
 
     Collection<Participant> getAll();
 
+    Collection<ParticipantOutgoing> getDtosByEvent(Long eventId);
+
     void setById(Long id, Participant participant) throws EntityNotFoundException;
 
     void deleteById(Long id) throws EntityNotFoundException;
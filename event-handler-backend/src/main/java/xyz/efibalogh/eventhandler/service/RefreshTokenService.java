@@ -0,0 +1,93 @@
+package xyz.efibalogh.eventhandler.service;
+
+import xyz.efibalogh.eventhandler.jwt.JwtUtil;
+import xyz.efibalogh.eventhandler.model.RefreshToken;
+import xyz.efibalogh.eventhandler.repo.JpaRefreshTokenDao;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@Timed(value = "service.calls", histogram = true)
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final JpaRefreshTokenDao refreshTokenDao;
+    private final JwtUtil jwtUtil;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            JpaRefreshTokenDao refreshTokenDao,
+            JwtUtil jwtUtil,
+            @Value("${jwt.refresh.ttl}") Duration ttl
+    ) {
+        this.refreshTokenDao = refreshTokenDao;
+        this.jwtUtil = jwtUtil;
+        this.ttl = ttl;
+    }
+
+    public record IssuedToken(String token, String username, Instant expiresAt) {}
+
+    @Transactional
+    public IssuedToken issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    @Transactional
+    public Optional<IssuedToken> rotate(String token) {
+        String tokenHash = jwtUtil.hashToken(token);
+        Optional<RefreshToken> stored = refreshTokenDao.findById(tokenHash);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken refreshToken = stored.get();
+        if (refreshTokenDao.markUsed(tokenHash) == 0) {
+            // an already rotated token came back, so the family is treated as stolen
+            log.warn("Refresh token reuse detected for user {}, revoking its sessions", refreshToken.getUsername());
+            refreshTokenDao.revokeFamily(refreshToken.getFamilyId());
+            return Optional.empty();
+        }
+        if (!refreshToken.getExpiresAt().isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(issue(refreshToken.getUsername(), refreshToken.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAll(String username) {
+        refreshTokenDao.revokeAllForUser(username);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${token-store.purge-interval}")
+    public void purgeExpired() {
+        int purged = refreshTokenDao.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private IssuedToken issue(String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant expiresAt = Instant.now().plus(ttl);
+
+        refreshTokenDao.save(new RefreshToken(jwtUtil.hashToken(token), familyId, username, expiresAt, false));
+        return new IssuedToken(token, username, expiresAt);
+    }
+}
@@ -0,0 +1,83 @@
+package xyz.efibalogh.eventhandler.service;
+
+import xyz.efibalogh.eventhandler.exception.ServiceOverloadedException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Aspect
+@Component
+// inside the cache advice so cache hits never wait, outside the transaction advice so no connection is held
+// while waiting; that only holds with spring.jpa.open-in-view off, otherwise the request keeps its connection
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ServiceConcurrencyLimiter {
+    // nested service calls on the same thread already hold a permit and must not ask for a second one
+    private static final ThreadLocal<Integer> DEPTH = ThreadLocal.withInitial(() -> 0);
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public ServiceConcurrencyLimiter(
+            @Value("${service-limiter.permits}") int permits,
+            @Value("${service-limiter.acquire-timeout}") Duration acquireTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeout = acquireTimeout;
+        Gauge.builder("service.limiter.available", this.permits, Semaphore::availablePermits)
+                .register(meterRegistry);
+        Gauge.builder("service.limiter.waiting", this.permits, Semaphore::getQueueLength)
+                .register(meterRegistry);
+        log.info("Limiting JPA services to {} concurrent calls", permits);
+    }
+
+    // not ParticipantImportService, it reads the upload from the client between writes; its writer takes a permit
+    // per batch
+    @Around("within(xyz.efibalogh.eventhandler.service.Jpa*Service) "
+            + "|| within(xyz.efibalogh.eventhandler.service.ParticipantImportWriter)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        int depth = DEPTH.get();
+        if (depth > 0) {
+            return proceed(joinPoint, depth);
+        }
+
+        if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("No service permit within {} for {}", acquireTimeout, joinPoint.getSignature().toShortString());
+            throw new ServiceOverloadedException("The server is busy, please try again later!");
+        }
+        try {
+            return proceed(joinPoint, depth);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint, int depth) throws Throwable {
+        DEPTH.set(depth + 1);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (depth == 0) {
+                DEPTH.remove();
+            } else {
+                DEPTH.set(depth);
+            }
+        }
+    }
+}
@@ -1,54 +1,130 @@
 package xyz.efibalogh.eventhandler.service;
 
+import xyz.efibalogh.eventhandler.jwt.JwtUtil;
+import xyz.efibalogh.eventhandler.logging.Redactor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.Duration;
+import java.time.Instant;
 
 @Slf4j
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class TokenBlacklistService {
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
-    private final Set<String> activeUsers = ConcurrentHashMap.newKeySet();
+    private final JwtUtil jwtUtil;
+    private final TokenStore tokenStore;
+    private final Duration syncOverlap;
+    // near-cache of the shared store, so the per-request check never leaves the process
+    private final Cache<String, Instant> blacklistedTokens = Caffeine.newBuilder()
+            .expireAfter(new ExpiresAt())
+            .build();
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    public TokenBlacklistService(
+            JwtUtil jwtUtil,
+            TokenStore tokenStore,
+            @Value("${token-store.sync-overlap}") Duration syncOverlap,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.tokenStore = tokenStore;
+        this.syncOverlap = syncOverlap;
+        Gauge.builder("jwt.blacklist.size", blacklistedTokens, Cache::estimatedSize)
+                .description("Revoked tokens that have not expired yet")
+                .register(meterRegistry);
+    }
 
     public void blacklistToken(String token) {
-        log.info("Blacklisting token: {}", token);
         if (token == null) {
             throw new IllegalArgumentException("Token cannot be null");
         }
-        blacklistedTokens.add(token);
+
+        Instant expiresAt;
+        try {
+            expiresAt = jwtUtil.extractExpiration(token).toInstant();
+        } catch (JwtException e) {
+            // expired or forged tokens are rejected by the parser anyway
+            return;
+        }
+        String tokenHash = jwtUtil.hashToken(token);
+        log.debug("Blacklisting token {}", Redactor.token(token));
+        blacklistedTokens.put(tokenHash, expiresAt);
+        tokenStore.revokeToken(tokenHash, expiresAt);
     }
 
     public boolean isBlacklisted(String token) {
-        log.info("Checking if token is blacklisted: {}", token);
         if (token == null) {
             throw new IllegalArgumentException("Token cannot be null");
         }
-        return blacklistedTokens.contains(token);
+        if (blacklistedTokens.estimatedSize() == 0) {
+            return false;
+        }
+        return blacklistedTokens.getIfPresent(jwtUtil.hashToken(token)) != null;
     }
 
     public boolean isUserLoggedIn(String username) {
-        log.info("Checking if user is logged in: {}", username);
+        log.debug("Checking if user is logged in: {}", username);
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
-        return activeUsers.contains(username);
+        return tokenStore.isUserActive(username);
     }
 
-    public void addActiveUser(String username) {
-        log.info("Adding active user: {}", username);
+    public void addActiveUser(String username, Instant expiresAt) {
+        log.debug("Adding active user: {}", username);
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
-        activeUsers.add(username);
+        tokenStore.addActiveUser(username, expiresAt);
     }
 
     public void removeActiveUser(String username) {
-        log.info("Removing active user: {}", username);
+        log.debug("Removing active user: {}", username);
         if (username == null) {
             throw new IllegalArgumentException("Username cannot be null");
         }
-        activeUsers.remove(username);
+        tokenStore.removeActiveUser(username);
+    }
+
+    @Scheduled(fixedDelayString = "${token-store.sync-interval}")
+    public void syncRevokedTokens() {
+        Instant syncStart = Instant.now();
+        // overlap the window so revocations committed with a slightly skewed clock are not missed
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(syncOverlap);
+        tokenStore.findRevokedSince(since).forEach(blacklistedTokens::put);
+        lastSync = syncStart;
+    }
+
+    @Scheduled(fixedDelayString = "${token-store.purge-interval}")
+    public void purgeExpired() {
+        tokenStore.purgeExpired();
+    }
+
+    private static final class ExpiresAt implements Expiry<String, Instant> {
+        @Override
+        public long expireAfterCreate(String key, Instant expiresAt, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Instant expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,18 @@
+package xyz.efibalogh.eventhandler.service;
+
+import java.time.Instant;
+import java.util.Map;
+
+public interface TokenStore {
+    void revokeToken(String tokenHash, Instant expiresAt);
+
+    Map<String, Instant> findRevokedSince(Instant since);
+
+    void addActiveUser(String username, Instant expiresAt);
+
+    boolean isUserActive(String username);
+
+    void removeActiveUser(String username);
+
+    void purgeExpired();
+}
@@ -27,3 +27,7 @@ VALUES ('Kovács János', 'kovacsjanos@yahoo.com', '123456', 1),
 
 INSERT INTO Users (username, email, password, language, theme, role, enabled)
 VALUES ('admin', 'admin@admin.com', '$2a$12$RXee3dQciclmRDUDODzBh.P98tnn5OGXP31R2Trm5rp0HaLSnIglu', 'en', 'light', 'ADMIN', true);
+
+INSERT INTO Events_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM Events;
+INSERT INTO Participants_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM Participants;
+INSERT INTO Users_SEQ (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM Users;
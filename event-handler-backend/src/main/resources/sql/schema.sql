@@ -1,6 +1,15 @@
 DROP TABLE IF EXISTS Participants;
 DROP TABLE IF EXISTS Events;
 DROP TABLE IF EXISTS Users;
+DROP TABLE IF EXISTS RevokedTokens;
+DROP TABLE IF EXISTS ActiveUsers;
+DROP TABLE IF EXISTS RefreshTokens;
+DROP TABLE IF EXISTS Events_SEQ;
+DROP TABLE IF EXISTS Participants_SEQ;
+DROP TABLE IF EXISTS Users_SEQ;
+
+-- ngram full-text indexes must not drop tokens containing stopwords (e.g. 'a')
+SET SESSION innodb_ft_enable_stopword = OFF;
 
 CREATE TABLE Users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -18,7 +27,14 @@ CREATE TABLE Events (
     name VARCHAR(255) NOT NULL,
     location VARCHAR(255) NOT NULL,
     startDate DATE NOT NULL,
-    endDate DATE NOT NULL
+    endDate DATE NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_events_start_end (startDate, endDate),
+    INDEX idx_events_end (endDate),
+    INDEX idx_events_name (name(64)),
+    INDEX idx_events_location (location(64)),
+    FULLTEXT INDEX ft_events_name (name) WITH PARSER ngram,
+    FULLTEXT INDEX ft_events_location (location) WITH PARSER ngram
 );
 
 CREATE TABLE Participants (
@@ -27,7 +43,49 @@ CREATE TABLE Participants (
     email VARCHAR(255),
     phoneNumber VARCHAR(255),
     event_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_participants_event (event_id),
     FOREIGN KEY (event_id) REFERENCES Events(id),
     UNIQUE KEY uk_email_event (email, event_id),
-    UNIQUE KEY uk_phone_event (phoneNumber, event_id)
+    UNIQUE KEY uk_phone_event (phoneNumber, event_id),
+    FULLTEXT INDEX ft_participants_name (name) WITH PARSER ngram,
+    FULLTEXT INDEX ft_participants_email (email) WITH PARSER ngram,
+    FULLTEXT INDEX ft_participants_phone (phoneNumber) WITH PARSER ngram
+);
+
+CREATE TABLE RevokedTokens (
+    tokenHash VARCHAR(64) PRIMARY KEY,
+    expiresAt DATETIME(6) NOT NULL,
+    revokedAt DATETIME(6) NOT NULL,
+    INDEX idx_revoked_tokens_revoked_at (revokedAt),
+    INDEX idx_revoked_tokens_expires_at (expiresAt)
+);
+
+CREATE TABLE ActiveUsers (
+    username VARCHAR(255) PRIMARY KEY,
+    expiresAt DATETIME(6) NOT NULL
+);
+
+CREATE TABLE RefreshTokens (
+    tokenHash VARCHAR(64) PRIMARY KEY,
+    familyId VARCHAR(36) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    expiresAt DATETIME(6) NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    INDEX idx_refresh_tokens_username (username),
+    INDEX idx_refresh_tokens_family (familyId),
+    INDEX idx_refresh_tokens_expires_at (expiresAt)
+);
+
+-- pooled id blocks handed out by Hibernate, seeded in data.sql (and by IdSequences at startup) from the highest id
+CREATE TABLE Events_SEQ (
+    next_val BIGINT
+);
+
+CREATE TABLE Participants_SEQ (
+    next_val BIGINT
+);
+
+CREATE TABLE Users_SEQ (
+    next_val BIGINT
 );
@@ -0,0 +1,205 @@
+package xyz.efibalogh.eventhandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the same paged read load against the app on Tomcat's platform thread pool and on virtual threads with
+// ServiceConcurrencyLimiter in front of the JPA services. Virtual threads need a Java 21 runtime, so run it with
+// `gradle benchmark` on a 21 JDK; far more clients than pooled connections make the modes differ.
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledForJreRange(min = JRE.JAVA_21)
+class ThreadingModeLoadBenchmark {
+    private static final int EVENTS = 5_000;
+    private static final int PARTICIPANTS_PER_EVENT = 5;
+    private static final int POOL_SIZE = 10;
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 25;
+    private static final int PAGE_SIZE = 50;
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record Result(int ok, int rejected, int failed, long millis, long p50, long p99, long max) {
+        double throughput() {
+            return ok * 1000.0 / millis;
+        }
+    }
+
+    @Test
+    void bothModesAnswerEveryRequestUnderLoad() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%d clients x %d requests, %d connections%n", CLIENTS, REQUESTS_PER_CLIENT, POOL_SIZE);
+        print("platform threads", platform);
+        print("virtual threads ", virtual);
+
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        assertThat(platform.failed()).isZero();
+        assertThat(platform.ok()).isEqualTo(total);
+        // a request either gets a permit or is turned away with 503 after service-limiter.acquire-timeout
+        assertThat(virtual.failed()).isZero();
+        assertThat(virtual.ok() + virtual.rejected()).isEqualTo(total);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Main.class).run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=" + mysql.getJdbcUrl(),
+                "--DB_USER=" + mysql.getUsername(),
+                "--DB_PASSWORD=" + mysql.getPassword(),
+                "--DB_POOL_SIZE=" + POOL_SIZE,
+                "--JWT_SECRET=benchmark-secret-benchmark-secret-benchmark-secret",
+                "--JWT_EXPIRATION=3600000",
+                "--VIRTUAL_THREADS=" + virtualThreads
+        )) {
+            seed(context.getBean(JdbcTemplate.class));
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            String token = login(client, baseUrl);
+
+            load(client, baseUrl, token, CLIENTS);
+            return load(client, baseUrl, token, CLIENTS);
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Events", Integer.class);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        List<Object[]> events = new ArrayList<>();
+        List<Object[]> participants = new ArrayList<>();
+        for (long id = 1; id <= EVENTS; id++) {
+            LocalDate day = start.plusDays(id % 365);
+            events.add(new Object[] {id, "Event " + id, "Location " + id % 50, day, day.plusDays(1)});
+            for (long p = 0; p < PARTICIPANTS_PER_EVENT; p++) {
+                long participantId = id * PARTICIPANTS_PER_EVENT + p;
+                String name = "Participant " + participantId;
+                String email = "p" + participantId + "@example.com";
+                participants.add(new Object[] {participantId, name, email, "36" + (1_000_000 + participantId), id});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO Events (id, name, location, startDate, endDate, version) "
+                + "VALUES (?, ?, ?, ?, ?, 0)", events);
+        jdbcTemplate.batchUpdate("INSERT INTO Participants (id, name, email, phoneNumber, event_id, version) "
+                + "VALUES (?, ?, ?, ?, ?, 0)", participants);
+    }
+
+    private String login(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        String credentials = "{\"username\":\"bench\",\"password\":\"bench-password\",\"email\":\"bench@example.com\"}";
+        client.send(post(baseUrl + "/auth/register", credentials), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> response = client.send(
+                post(baseUrl + "/auth/login", credentials), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private static Result load(HttpClient client, String baseUrl, String token, int clients)
+            throws InterruptedException {
+        AtomicLongArray latencies = new AtomicLongArray(clients * REQUESTS_PER_CLIENT);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        for (int c = 0; c < clients; c++) {
+            int clientIndex = c;
+            executor.execute(() -> {
+                try {
+                    startGate.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long after = ThreadLocalRandom.current().nextLong(EVENTS - PAGE_SIZE);
+                        HttpRequest request = HttpRequest.newBuilder(
+                                        URI.create(baseUrl + "/events?limit=" + PAGE_SIZE + "&after=" + after))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long sent = System.nanoTime();
+                        int status = send(client, request);
+                        latencies.set(clientIndex * REQUESTS_PER_CLIENT + r, System.nanoTime() - sent);
+                        if (status == 200) {
+                            ok.incrementAndGet();
+                        } else if (status == 503) {
+                            rejected.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        final long start = System.nanoTime();
+        startGate.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        long[] sorted = new long[latencies.length()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i) / 1_000_000;
+        }
+        Arrays.sort(sorted);
+        return new Result(ok.get(), rejected.get(), failed.get(), millis,
+                sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)], sorted[sorted.length - 1]);
+    }
+
+    private static int send(HttpClient client, HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void print(String mode, Result result) {
+        System.out.printf("%s: %.0f req/s, p50 %d ms, p99 %d ms, max %d ms (%d ok, %d rejected, %d failed)%n",
+                mode, result.throughput(), result.p50(), result.p99(), result.max(),
+                result.ok(), result.rejected(), result.failed());
+    }
+}
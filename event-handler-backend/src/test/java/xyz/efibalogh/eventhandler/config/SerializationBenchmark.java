@@ -0,0 +1,103 @@
+package xyz.efibalogh.eventhandler.config;
+
+import xyz.efibalogh.eventhandler.dto.outgoing.EventOutgoing;
+import xyz.efibalogh.eventhandler.dto.outgoing.ParticipantOutgoing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Writes the same large event list with every mapper JacksonConfig can produce, with and without Blackbird,
+// and prints throughput and payload size; run with `gradle benchmark`.
+@Tag("benchmark")
+class SerializationBenchmark {
+    private static final int EVENTS = 2_000;
+    private static final int PARTICIPANTS_PER_EVENT = 20;
+    private static final long WARMUP_MILLIS = 3_000;
+    private static final long MEASURE_MILLIS = 5_000;
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() throws IOException {
+        List<EventOutgoing> events = events();
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+
+        for (boolean blackbird : new boolean[] {false, true}) {
+            for (JsonFactory factory : new JsonFactory[] {new JsonFactory(), new CBORFactory(), new SmileFactory()}) {
+                ObjectMapper mapper = mapper(factory, blackbird);
+                String label = factory.getFormatName() + (blackbird ? " + Blackbird" : "");
+
+                int size = mapper.writeValueAsBytes(events).length;
+                measure(mapper, events, WARMUP_MILLIS);
+                double perSecond = measure(mapper, events, MEASURE_MILLIS);
+                System.out.printf("%-18s %8.1f lists/s %8.1f MB/s %10d bytes%n",
+                        label, perSecond, perSecond * size / 1_000_000, size);
+
+                // the payload has to survive the round trip the client does
+                EventOutgoing[] read = mapper.readValue(mapper.writeValueAsBytes(events), EventOutgoing[].class);
+                assertThat(read).hasSize(EVENTS);
+                assertThat(read[EVENTS - 1]).isEqualTo(events.get(EVENTS - 1));
+                sizes.put(factory.getFormatName(), size);
+            }
+        }
+
+        assertThat(sizes.get(CBORFactory.FORMAT_NAME)).isLessThan(sizes.get(JsonFactory.FORMAT_NAME_JSON));
+        assertThat(sizes.get(SmileFactory.FORMAT_NAME_SMILE)).isLessThan(sizes.get(JsonFactory.FORMAT_NAME_JSON));
+    }
+
+    // built like the converters in JacksonConfig, Boot adds the Blackbird bean to its builder the same way
+    private static ObjectMapper mapper(JsonFactory factory, boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder().factory(factory);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    private static double measure(ObjectMapper mapper, List<EventOutgoing> events, long millis)
+            throws JsonProcessingException {
+        long bytes = 0;
+        int lists = 0;
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000;
+        while (System.nanoTime() < end) {
+            bytes += mapper.writeValueAsBytes(events).length;
+            lists++;
+        }
+        // keeps the writes from being optimized away
+        assertThat(bytes).isPositive();
+        return lists * 1_000_000_000.0 / (System.nanoTime() - start);
+    }
+
+    private static List<EventOutgoing> events() {
+        List<EventOutgoing> events = new ArrayList<>(EVENTS);
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (long id = 1; id <= EVENTS; id++) {
+            LocalDate day = start.plusDays(id % 365);
+            EventOutgoing event = new EventOutgoing(id, "Event " + id, "Location " + id % 50, day, day.plusDays(2), 0L);
+            List<ParticipantOutgoing> participants = new ArrayList<>(PARTICIPANTS_PER_EVENT);
+            for (long p = 0; p < PARTICIPANTS_PER_EVENT; p++) {
+                long participantId = id * PARTICIPANTS_PER_EVENT + p;
+                participants.add(new ParticipantOutgoing(participantId, "Participant " + participantId,
+                        "participant" + participantId + "@example.com", "+3630" + participantId, id, 0L));
+            }
+            event.setParticipants(participants);
+            events.add(event);
+        }
+        return events;
+    }
+}
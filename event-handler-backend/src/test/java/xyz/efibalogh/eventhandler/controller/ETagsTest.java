@@ -0,0 +1,42 @@
+package xyz.efibalogh.eventhandler.controller;
+
+import xyz.efibalogh.eventhandler.exception.PreconditionFailedException;
+import xyz.efibalogh.eventhandler.model.Participant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ETagsTest {
+    @Test
+    void tagsAreWeak() {
+        assertThat(ETags.forParticipant(participant(7L, 2L))).isEqualTo("W/\"p7-2\"");
+    }
+
+    @Test
+    void ifMatchAcceptsTheTagWithOrWithoutWeakPrefix() {
+        String current = ETags.forParticipant(participant(7L, 2L));
+
+        assertThatNoException().isThrownBy(() -> ETags.checkIfMatch("W/\"p7-2\"", current));
+        assertThatNoException().isThrownBy(() -> ETags.checkIfMatch("\"p7-2\"", current));
+        assertThatNoException().isThrownBy(() -> ETags.checkIfMatch("\"p7-1\", W/\"p7-2\"", current));
+        assertThatNoException().isThrownBy(() -> ETags.checkIfMatch("*", current));
+    }
+
+    @Test
+    void ifMatchRejectsAnOlderVersion() {
+        String current = ETags.forParticipant(participant(7L, 2L));
+
+        assertThatThrownBy(() -> ETags.checkIfMatch("W/\"p7-1\"", current))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    private static Participant participant(Long id, Long version) {
+        Participant participant = new Participant();
+        participant.setId(id);
+        participant.setVersion(version);
+        return participant;
+    }
+}
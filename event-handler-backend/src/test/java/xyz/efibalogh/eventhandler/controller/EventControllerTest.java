@@ -0,0 +1,235 @@
+package xyz.efibalogh.eventhandler.controller;
+
+import xyz.efibalogh.eventhandler.jwt.JwtUtil;
+import xyz.efibalogh.eventhandler.model.Role;
+import xyz.efibalogh.eventhandler.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// runs with open-in-view off like production, so whatever a controller renders has to be loaded by the service
+@SpringBootTest(properties = {
+    "DB_POOL_SIZE=4",
+    "JWT_SECRET=controller-test-secret-controller-test-secret",
+    "JWT_EXPIRATION=600000",
+    "management.server.port=-1"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class EventControllerTest {
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String token;
+
+    // records the SQL Hibernate sends, to tell which predicates a search was built from
+    @TestConfiguration
+    static class SqlRecorderConfig {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Bean
+        HibernatePropertiesCustomizer sqlRecorder() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM Participants");
+        jdbcTemplate.update("DELETE FROM Events");
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO Events (id, name, location, startDate, endDate, version) "
+                    + "VALUES (?, ?, 'Budapest', '2025-05-01', '2025-05-02', 0)", id, "Spring Concert " + id);
+            for (long p = 1; p <= 2; p++) {
+                long participantId = id * 10 + p;
+                jdbcTemplate.update("INSERT INTO Participants (id, name, email, phoneNumber, event_id, version) "
+                        + "VALUES (?, ?, ?, ?, ?, 0)", participantId, "Participant " + participantId,
+                        "p" + participantId + "@example.com", "3630" + participantId, id);
+            }
+        }
+
+        // role claims in the token authorize the request without a stored user
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("tester");
+        user.setRole(Role.USER);
+        token = jwtUtil.generateToken(user);
+
+        // the rows above were written behind Hibernate's back
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        SqlRecorderConfig.STATEMENTS.clear();
+    }
+
+    @Test
+    void limitedSearchRendersParticipants() throws Exception {
+        mockMvc.perform(post("/events/search")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Concert\",\"sortBy\":\"id\",\"limit\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].participants.length()").value(2))
+                .andExpect(jsonPath("$[1].participants.length()").value(2));
+    }
+
+    @Test
+    void nameAndLocationSearchUsesFullTextIndexes() throws Exception {
+        mockMvc.perform(get("/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .param("name", "Concert")
+                        .param("location", "Budapest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        assertThat(SqlRecorderConfig.STATEMENTS)
+                .anyMatch(sql -> sql.contains("match(e1_0.name) against(") && sql.contains("like"))
+                .anyMatch(sql -> sql.contains("match(e1_0.location) against("));
+    }
+
+    @Test
+    void summarySearchUsesFullTextIndex() throws Exception {
+        mockMvc.perform(get("/events/summary")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .param("name", "Concert"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].participantCount").value(2));
+
+        assertThat(SqlRecorderConfig.STATEMENTS).anyMatch(sql -> sql.contains("against("));
+    }
+
+    @Test
+    void termTooShortForTheIndexFallsBackToLike() throws Exception {
+        mockMvc.perform(get("/events")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .param("name", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(3));
+
+        assertThat(SqlRecorderConfig.STATEMENTS)
+                .anyMatch(sql -> sql.contains("like"))
+                .noneMatch(sql -> sql.contains("against("));
+    }
+
+    @Test
+    void patchWritesTheEventRowOnly() throws Exception {
+        mockMvc.perform(patch("/events/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"version\":0}"))
+                .andExpect(status().isNoContent());
+
+        assertThat(jdbcTemplate.queryForMap("SELECT name, version FROM Events WHERE id = 1"))
+                .containsEntry("name", "Renamed")
+                .containsEntry("version", 1L);
+        assertThat(SqlRecorderConfig.STATEMENTS)
+                .noneMatch(sql -> sql.contains("Participants"))
+                .filteredOn(sql -> sql.startsWith("update"))
+                .singleElement()
+                .satisfies(sql -> assertThat(sql).contains("name=?").doesNotContain("location=?"));
+    }
+
+    @Test
+    void patchWithStaleVersionIsAConflict() throws Exception {
+        jdbcTemplate.update("UPDATE Events SET version = 3 WHERE id = 2");
+
+        mockMvc.perform(patch("/events/2")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"version\":2}"))
+                .andExpect(status().isConflict());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM Events WHERE id = 2", String.class))
+                .isEqualTo("Spring Concert 2");
+    }
+
+    @Test
+    void weakIfNoneMatchRevalidates() throws Exception {
+        String etag = mockMvc.perform(get("/events/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"e1-0-2.");
+
+        mockMvc.perform(get("/events/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        // a proxy or client may drop the weak prefix, the comparison is weak either way
+        mockMvc.perform(get("/events/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag.substring(2)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void patchAcceptsTheWeakTagAsIfMatch() throws Exception {
+        String etag = mockMvc.perform(get("/events/3")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/events/3")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"location\":\"Szeged\"}"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(patch("/events/3")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"location\":\"Pecs\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/events/3")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(header().string(HttpHeaders.ETAG, etag.replace("e3-0-", "e3-1-")));
+    }
+}
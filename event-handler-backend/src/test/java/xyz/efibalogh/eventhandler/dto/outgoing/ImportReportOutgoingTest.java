@@ -0,0 +1,19 @@
+package xyz.efibalogh.eventhandler.dto.outgoing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportReportOutgoingTest {
+    @Test
+    void listsOnlyTheFirstFailuresButCountsAll() {
+        ImportReportOutgoing report = new ImportReportOutgoing(2);
+        for (long row = 1; row <= 5; row++) {
+            report.addFailure(row, "Invalid");
+        }
+
+        assertThat(report.getFailed()).isEqualTo(5);
+        assertThat(report.getFailures()).extracting(ImportFailureOutgoing::getRow).containsExactly(1L, 2L);
+        assertThat(report.getUnlistedFailures()).isEqualTo(3);
+    }
+}
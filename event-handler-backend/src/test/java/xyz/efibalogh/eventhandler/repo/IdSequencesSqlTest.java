@@ -0,0 +1,80 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// runs the seeding statements on H2 in MySQL mode, so they are checked without Docker;
+// IdSequencesTest covers the Hibernate side against a real MySQL
+class IdSequencesSqlTest {
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private IdSequences idSequences;
+
+    @BeforeEach
+    void createTables() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:id-sequences;MODE=MySQL", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE Events (id BIGINT PRIMARY KEY)");
+        // the shape ddl-auto gives a table-backed pooled sequence on MySQL
+        jdbcTemplate.execute("CREATE TABLE Events_SEQ (next_val BIGINT)");
+
+        // no entity descriptors, the test seeds the table itself
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class))
+                .thenReturn(mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS));
+        idSequences = new IdSequences(entityManagerFactory, jdbcTemplate);
+    }
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.destroy();
+    }
+
+    @Test
+    void missingRowIsInsertedPastMaxId() {
+        jdbcTemplate.update("INSERT INTO Events (id) VALUES (7), (1000)");
+
+        idSequences.seed("Events_SEQ", "Events", "id");
+
+        assertThat(jdbcTemplate.queryForList("SELECT next_val FROM Events_SEQ", Long.class)).containsExactly(1001L);
+    }
+
+    @Test
+    void lowSequenceIsRaisedPastMaxId() {
+        jdbcTemplate.update("INSERT INTO Events (id) VALUES (1000)");
+        jdbcTemplate.update("INSERT INTO Events_SEQ (next_val) VALUES (1)");
+
+        idSequences.seed("Events_SEQ", "Events", "id");
+
+        assertThat(jdbcTemplate.queryForList("SELECT next_val FROM Events_SEQ", Long.class)).containsExactly(1001L);
+    }
+
+    @Test
+    void higherSequenceIsKeptAndSeedingIsRepeatable() {
+        jdbcTemplate.update("INSERT INTO Events (id) VALUES (1000)");
+        jdbcTemplate.update("INSERT INTO Events_SEQ (next_val) VALUES (5000)");
+
+        idSequences.seed("Events_SEQ", "Events", "id");
+        idSequences.seed("Events_SEQ", "Events", "id");
+
+        assertThat(jdbcTemplate.queryForList("SELECT next_val FROM Events_SEQ", Long.class)).containsExactly(5000L);
+    }
+
+    @Test
+    void emptyTableStartsAtOne() {
+        idSequences.seed("Events_SEQ", "Events", "id");
+
+        assertThat(jdbcTemplate.queryForList("SELECT next_val FROM Events_SEQ", Long.class)).containsExactly(1L);
+    }
+}
@@ -0,0 +1,64 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import xyz.efibalogh.eventhandler.model.Event;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "DB_POOL_SIZE=4")
+@Import(FullTextIndexes.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// committed as we go, the pooled generator reads its sequence table in a transaction of its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdSequencesTest {
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JpaEventDao eventDao;
+
+    @Test
+    void newIdsContinuePastRowsWrittenOutsideHibernate() {
+        jdbcTemplate.update("INSERT INTO Events (id, name, location, startDate, endDate, version) "
+                + "VALUES (1000, 'Legacy', 'Somewhere', '2024-01-01', '2024-01-02', 0)");
+
+        new IdSequences(entityManagerFactory, jdbcTemplate);
+        Event saved = eventDao.saveAndFlush(
+                new Event("New", "Elsewhere", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+
+        assertThat(saved.getId()).isGreaterThan(1000L);
+    }
+
+    @Test
+    void seedingNeverLowersASequence() {
+        jdbcTemplate.update("UPDATE Users_SEQ SET next_val = 5000");
+
+        new IdSequences(entityManagerFactory, jdbcTemplate);
+        new IdSequences(entityManagerFactory, jdbcTemplate);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT next_val FROM Users_SEQ", Long.class)).isEqualTo(5000L);
+    }
+}
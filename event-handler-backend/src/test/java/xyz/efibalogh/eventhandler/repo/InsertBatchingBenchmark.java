@@ -0,0 +1,122 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import xyz.efibalogh.eventhandler.model.Event;
+import xyz.efibalogh.eventhandler.model.Participant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compares the old IDENTITY behaviour (one INSERT round trip per row, the id has to come back before the
+// next row) with pooled ids and JDBC batching as used by the participant import.
+@Tag("benchmark")
+@DataJpaTest(properties = "DB_POOL_SIZE=4")
+@Import(FullTextIndexes.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InsertBatchingBenchmark {
+    private static final int ROWS = 5_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @Autowired
+    private JpaEventDao eventDao;
+
+    @Autowired
+    private JpaParticipantDao participantDao;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void pooledIdsBatchInsertsAndBeatRowAtATime() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Event event = eventDao.saveAndFlush(
+                new Event("Benchmark", "Lab", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2)));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // warm up both paths, JIT and connection pool, before measuring
+        insert(transactionTemplate, event, "warmup-single", 500, true);
+        insert(transactionTemplate, event, "warmup-batched", 500, false);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        insert(transactionTemplate, event, "single", ROWS, true);
+        final long rowAtATimeMillis = (System.nanoTime() - start) / 1_000_000;
+        final long rowAtATimeBatches = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        start = System.nanoTime();
+        insert(transactionTemplate, event, "batched", ROWS, false);
+        long batchedMillis = (System.nanoTime() - start) / 1_000_000;
+        long statements = statistics.getPrepareStatementCount();
+
+        System.out.printf("Inserting %d participants: row at a time %d ms (%d statements prepared), "
+                + "pooled + batched %d ms (%d statements prepared)%n",
+                ROWS, rowAtATimeMillis, rowAtATimeBatches, batchedMillis, statements);
+
+        // one statement per hibernate.jdbc.batch_size rows plus the occasional sequence block, not one per row
+        assertThat(statements).isLessThan(ROWS / 10);
+        assertThat(batchedMillis).isLessThan(rowAtATimeMillis);
+    }
+
+    // flushEachRow reproduces IDENTITY, where Hibernate has to send every INSERT on its own to learn the id;
+    // otherwise the rows go out in JDBC batches like in ParticipantImportService
+    private void insert(TransactionTemplate transactionTemplate, Event event, String prefix, int rows,
+                        boolean flushEachRow) {
+        for (int from = 0; from < rows; from += BATCH_SIZE) {
+            int batchStart = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                Event reference = entityManager.getReference(Event.class, event.getId());
+                List<Participant> participants = new ArrayList<>(BATCH_SIZE);
+                for (int i = batchStart; i < Math.min(batchStart + BATCH_SIZE, rows); i++) {
+                    Participant participant = new Participant();
+                    participant.setName(prefix + i);
+                    participant.setEmail(prefix + i + "@example.com");
+                    participant.setPhoneNumber(prefix + i);
+                    participant.setEvent(reference);
+                    if (flushEachRow) {
+                        participantDao.saveAndFlush(participant);
+                    } else {
+                        participants.add(participant);
+                    }
+                }
+                participantDao.saveAllAndFlush(participants);
+                entityManager.clear();
+            });
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package xyz.efibalogh.eventhandler.repo;
+
+import xyz.efibalogh.eventhandler.model.Event;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "DB_POOL_SIZE=4")
+@Import(FullTextIndexes.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UpcomingEventsQueryPlanTest {
+    private static final int SEEDED_EVENTS = 20_000;
+    private static final LocalDate FIRST_START = LocalDate.of(2020, 1, 1);
+    private static final LocalDate WINDOW_START = LocalDate.of(2024, 3, 1);
+    private static final LocalDate WINDOW_END = WINDOW_START.plusDays(30);
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private JpaEventDao eventDao;
+
+    @BeforeEach
+    void seed() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Events", Integer.class);
+        if (count != null && count >= SEEDED_EVENTS) {
+            return;
+        }
+        // ten years of events, so a 30 day window is a small, selective range
+        for (int from = 1; from <= SEEDED_EVENTS; from += 1000) {
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO Events (id, name, location, startDate, endDate, version) VALUES ");
+            for (int id = from; id < from + 1000; id++) {
+                LocalDate start = FIRST_START.plusDays(id * 7L % 3650);
+                sql.append(id == from ? "" : ",")
+                        .append("(").append(id).append(", 'Event ").append(id).append("', 'Location ")
+                        .append(id % 50).append("', '").append(start).append("', '")
+                        .append(start.plusDays(id % 5)).append("', 0)");
+            }
+            jdbcTemplate.update(sql.toString());
+        }
+        jdbcTemplate.execute("ANALYZE TABLE Events");
+    }
+
+    @Test
+    void upcomingQueryRangeScansStartEndIndexWithoutFilesort() {
+        List<Map<String, Object>> plan = namedParameterJdbcTemplate.queryForList(
+                "EXPLAIN " + JpaEventDao.UPCOMING_QUERY,
+                Map.of("from", WINDOW_START, "to", WINDOW_END, "limit", 50)
+        );
+
+        assertThat(plan).hasSize(1);
+        assertThat(plan.get(0))
+                .containsEntry("key", "idx_events_start_end")
+                .containsEntry("type", "range");
+        assertThat(String.valueOf(plan.get(0).get("Extra"))).doesNotContain("filesort");
+    }
+
+    @Test
+    void endDateFilterUsesEndDateIndex() {
+        List<Map<String, Object>> plan = namedParameterJdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM Events WHERE endDate <= :endDate",
+                Map.of("endDate", FIRST_START.plusDays(3))
+        );
+
+        assertThat(plan.get(0)).containsEntry("key", "idx_events_end");
+    }
+
+    @Test
+    void startEndIndexCoversBothColumnsInOrder() {
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT COLUMN_NAME FROM information_schema.STATISTICS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Events' "
+                        + "AND INDEX_NAME = 'idx_events_start_end' ORDER BY SEQ_IN_INDEX",
+                String.class
+        );
+
+        assertThat(columns).containsExactly("startDate", "endDate");
+    }
+
+    @Test
+    void upcomingReturnsTheWindowInStartDateOrder() throws Exception {
+        List<Event> events = eventDao.findUpcoming(WINDOW_START, WINDOW_END, 50);
+
+        assertThat(events).isNotEmpty().hasSizeLessThanOrEqualTo(50);
+        assertThat(events).allSatisfy(event -> assertThat(event.getStartDate())
+                .isAfterOrEqualTo(WINDOW_START)
+                .isBefore(WINDOW_END));
+        assertThat(events).extracting(Event::getStartDate).isSorted();
+    }
+}
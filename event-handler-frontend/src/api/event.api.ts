@@ -1,11 +1,17 @@
 import { api } from './axios.config';
 import { EventIncoming, EventOutgoing } from '../types/event';
 
-export const fetchEvents = async (): Promise<EventOutgoing[]> => {
-  const response = await api.get('');
-  return response.data;
+const NEXT_LINK = /<([^>]+)>;\s*rel="next"/;
+
+// the backend answers GET /events one page at a time, the Link header points to the next page
+const fetchEventPages = async (url: string): Promise<EventOutgoing[]> => {
+  const response = await api.get<EventOutgoing[]>(url);
+  const next = NEXT_LINK.exec(response.headers.link ?? '');
+  return next ? response.data.concat(await fetchEventPages(next[1])) : response.data;
 };
 
+export const fetchEvents = async (): Promise<EventOutgoing[]> => fetchEventPages('');
+
 export const fetchEvent = async (id: number): Promise<EventOutgoing> => {
   const response = await api.get(`/${id}`);
   return response.data;